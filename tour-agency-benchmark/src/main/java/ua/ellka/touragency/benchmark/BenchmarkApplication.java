@@ -0,0 +1,118 @@
+package ua.ellka.touragency.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.config.SpringJpaConfig;
+import ua.ellka.touragency.index.BookingStatisticsRollup;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.TourSeatCounters;
+import ua.ellka.touragency.ingestion.BookingWriteBehindQueue;
+import ua.ellka.touragency.mapper.TourMapper;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.BookingMonthStatRepo;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.reservation.SeatHoldRegistry;
+import ua.ellka.touragency.reservation.SeatReservations;
+import ua.ellka.touragency.service.BookingIngestionServiceImpl;
+import ua.ellka.touragency.service.BookingServiceImpl;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Контекст для бенчмарків: репозиторії і потрібні сервіси поверх H2 у пам'яті, без веб-шару і безпеки.
+// H2 не має мережевого round trip, тому виграш від меншої кількості запитів на PostgreSQL лише більший
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class})
+@EntityScan(basePackageClasses = {Tour.class, IdentityTour.class})
+@EnableJpaRepositories(basePackageClasses = TourRepo.class)
+@ComponentScan(basePackageClasses = TourMapper.class)
+@Import({
+        SpringJpaConfig.class,
+        BookingServiceImpl.class,
+        BookingIngestionServiceImpl.class,
+        BookingWriteBehindQueue.class,
+        SeatReservations.class,
+        SeatHoldRegistry.class,
+        TourSeatCounters.class,
+        TourPopularityIndex.class,
+        TourDateIndex.class,
+        TourCatalogCache.class
+})
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        defaults.put("spring.jpa.open-in-view", "false");
+        defaults.put("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+        defaults.put("spring.jpa.properties.hibernate.order_inserts", "true");
+        defaults.put("spring.jpa.properties.hibernate.order_updates", "true");
+        defaults.put("spring.jpa.properties.hibernate.default_batch_fetch_size", "100");
+        defaults.put("logging.level.root", "WARN");
+
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(defaults)
+                .properties(properties)
+                .run();
+    }
+
+    @Bean
+    public CacheManager cacheManager() {
+        return new ConcurrentMapCacheManager(TourCatalogCache.TOUR_BY_ID, TourCatalogCache.TOUR_PAGES,
+                TourCatalogCache.TOURS_BY_COUNTRY, TourCatalogCache.TOURS_BY_GUIDE);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public BookingStatisticsRollup bookingStatisticsRollup(BookingMonthStatRepo bookingMonthStatRepo,
+                                                           BookingRepo bookingRepo) {
+        return new InMemoryStatisticsRollup(bookingMonthStatRepo, bookingRepo);
+    }
+
+    // Upsert лічильника пишеться через ON CONFLICT, якого H2 не підтримує, тож у бенчмарку його немає
+    // на обох шляхах бронювання (синхронний платив би його на кожне бронювання, пакетний - раз на місяць)
+    static class InMemoryStatisticsRollup extends BookingStatisticsRollup {
+        InMemoryStatisticsRollup(BookingMonthStatRepo bookingMonthStatRepo, BookingRepo bookingRepo) {
+            super(bookingMonthStatRepo, bookingRepo);
+        }
+
+        @Override
+        public void bookingCreated(LocalDate bookingDate) {
+        }
+
+        @Override
+        public void bookingsCreated(Collection<LocalDate> bookingDates) {
+        }
+
+        @Override
+        public void bookingDeleted(LocalDate bookingDate) {
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ua.ellka.touragency.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.model.Client;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+// Тестові дані для бенчмарків, фіксований seed дає однакові набори між запусками
+public final class BenchmarkData {
+    public static final LocalDate FIRST_START = LocalDate.of(2026, 1, 1);
+    private static final int COUNTRIES = 50;
+    private static final int GUIDES = 200;
+    private static final int FLUSH_EVERY = 1000;
+
+    private BenchmarkData() {
+    }
+
+    // Тури по року: старт у межах 2026, тривалість 1-14 днів. capacity == null - місця не обмежені
+    public static List<Long> tours(ApplicationContext context, int count, Integer capacity) {
+        return inTransaction(context, entityManager -> {
+            Random random = new Random(42);
+            List<Country> countries = new ArrayList<>();
+            for (int i = 0; i < COUNTRIES; i++) {
+                Country country = new Country(null, "Country " + i, "Region " + i % 5);
+                entityManager.persist(country);
+                countries.add(country);
+            }
+            List<Guide> guides = new ArrayList<>();
+            for (int i = 0; i < GUIDES; i++) {
+                Guide guide = new Guide(null, "Guide " + i, "English", user(entityManager, "guide" + i, "ROLE_GUIDE"));
+                entityManager.persist(guide);
+                guides.add(guide);
+            }
+
+            List<Tour> tours = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Tour tour = new Tour();
+                tour.setName("Tour " + i);
+                tour.setCountry(countries.get(i % COUNTRIES));
+                tour.setGuide(guides.get(i % GUIDES));
+                tour.setPrice(BigDecimal.valueOf(100 + random.nextInt(900)));
+                tour.setStartDate(FIRST_START.plusDays(random.nextInt(365)));
+                tour.setEndDate(tour.getStartDate().plusDays(1 + random.nextInt(14)));
+                tour.setImageUrl("https://example.com/tours/" + i + ".jpg");
+                tour.setCapacity(capacity);
+                tour.setAvailableSeats(capacity);
+                entityManager.persist(tour);
+                tours.add(tour);
+                flushPeriodically(entityManager, i);
+            }
+            return tours.stream().map(Tour::getId).toList();
+        });
+    }
+
+    // Id користувачів, у кожного профіль клієнта
+    public static List<Long> clients(ApplicationContext context, int count) {
+        return inTransaction(context, entityManager -> {
+            List<Long> userIds = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                User user = user(entityManager, "client" + i, "ROLE_CLIENT");
+                entityManager.persist(new Client(null, "Client " + i, "PS" + i, "+380" + i, user));
+                userIds.add(user.getId());
+                flushPeriodically(entityManager, i);
+            }
+            return userIds;
+        });
+    }
+
+    private static User user(EntityManager entityManager, String name, String role) {
+        User user = new User(null, name + "@example.com", "password", role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private static void flushPeriodically(EntityManager entityManager, int index) {
+        if ((index + 1) % FLUSH_EVERY == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private static <T> T inTransaction(ApplicationContext context, Function<EntityManager, T> work) {
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        return context.getBean(TransactionTemplate.class).execute(status -> work.apply(entityManager));
+    }
+}
@@ -0,0 +1,97 @@
+package ua.ellka.touragency.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+import ua.ellka.touragency.dto.BookingIngestionStatus;
+import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+import ua.ellka.touragency.service.BookingIngestionService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Пропускна здатність бронювання: синхронний шлях (транзакція, три SELECT, UPDATE місця і INSERT
+// на кожне бронювання) проти write-behind черги з пакетним записом. Операція - бронювання,
+// що дійшло до БД: для черги виміри чекають, поки останній квиток пачки отримає результат.
+// ./mvnw -Pbenchmark -pl tour-agency-benchmark -am verify -DskipTests -Djmh.args=BookingIngestionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingIngestionBenchmark {
+    private static final int BURST = 1000;
+    private static final int TOURS = 100;
+    private static final int CLIENTS = 2000;
+    private static final LocalDate FIRST_BOOKING_DATE = LocalDate.of(2026, 1, 1);
+
+    @Param({"sync", "write-behind"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookingIngestionService bookingIngestionService;
+    private List<Long> tourIds;
+    private List<Authentication> clients;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("booking.write-behind.enabled=" + mode.equals("write-behind"));
+        bookingIngestionService = context.getBean(BookingIngestionService.class);
+        // Місць вистачає на весь прогін: міряємо запис, а не відмови
+        tourIds = BenchmarkData.tours(context, TOURS, Integer.MAX_VALUE / 2);
+        clients = BenchmarkData.clients(context, CLIENTS).stream()
+                .map(userId -> TourAgencyUserDetails.fromClaims(userId, "client@example.com", "ROLE_CLIENT"))
+                .<Authentication>map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public BookingIngestionDTO book() throws InterruptedException {
+        BookingIngestionDTO last = null;
+        for (int i = 0; i < BURST; i++) {
+            // Кожне бронювання унікальне: клієнт по колу, тур і дата зсуваються разом з лічильником
+            long n = sequence++;
+            SecurityContextHolder.getContext().setAuthentication(clients.get((int) (n % CLIENTS)));
+            BookingDTO booking = new BookingDTO();
+            booking.setTourId(tourIds.get((int) (n % TOURS)));
+            booking.setBookingDate(FIRST_BOOKING_DATE.plusDays(n / CLIENTS));
+            last = bookingIngestionService.submitBooking(booking);
+        }
+
+        // Один потік запису обробляє чергу по порядку: останній квиток завершується останнім
+        while (last.getStatus() == BookingIngestionStatus.ACCEPTED) {
+            TimeUnit.MILLISECONDS.sleep(1);
+            last = bookingIngestionService.getBookingStatus(last.getTicketId());
+        }
+        if (last.getStatus() != BookingIngestionStatus.CONFIRMED) {
+            throw new IllegalStateException("Booking was not written: " + last.getMessage());
+        }
+        return last;
+    }
+}
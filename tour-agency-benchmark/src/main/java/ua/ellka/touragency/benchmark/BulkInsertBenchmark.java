@@ -0,0 +1,140 @@
+package ua.ellka.touragency.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Пропускна здатність масової вставки турів (частина імпорту - ROWS рядків в одній транзакції):
+// identity - id від identity-колонки, як до переходу (Hibernate вставляє кожен рядок окремо, щоб отримати id),
+// sequence - Tour з пулом послідовності. batchSize 0 вимикає JDBC-пакети, тож видно внесок кожної зміни окремо.
+// database tcp - той самий H2 через TCP-сервер на loopback, щоб кожен оператор платив мережевий round trip,
+// як з PostgreSQL. Результат - рядків за секунду
+// ./mvnw -Pbenchmark -pl tour-agency-benchmark -am verify -DskipTests -Djmh.args=BulkInsertBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BulkInsertBenchmark.ROWS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    static final int ROWS = 1000;
+
+    @Param({"embedded", "tcp"})
+    public String database;
+
+    @Param({"0", "50"})
+    public int batchSize;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private List<Country> countries;
+    private List<Guide> guides;
+    private long next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String batching = "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize;
+        if (database.equals("tcp")) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            context = BenchmarkApplication.start(batching, "spring.datasource.url=jdbc:h2:tcp://localhost:"
+                    + server.getPort() + "/mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        } else {
+            context = BenchmarkApplication.start(batching);
+        }
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        BenchmarkData.tours(context, 0, null);
+        countries = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT c FROM Country c", Country.class).getResultList());
+        guides = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT g FROM Guide g", Guide.class).getResultList());
+    }
+
+    // Таблиці не ростуть між ітераціями, тож вартість індексів однакова для обох варіантів
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Tour").executeUpdate();
+            entityManager.createQuery("DELETE FROM IdentityTour").executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public void identity() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                IdentityTour tour = new IdentityTour();
+                long n = next++;
+                tour.setName("Tour " + n);
+                tour.setCountry(countries.get((int) (n % countries.size())));
+                tour.setGuide(guides.get((int) (n % guides.size())));
+                tour.setPrice(BigDecimal.valueOf(100 + n % 900));
+                tour.setStartDate(BenchmarkData.FIRST_START.plusDays(n % 365));
+                tour.setEndDate(tour.getStartDate().plusDays(1 + n % 14));
+                tour.setImageUrl("https://example.com/tours/" + n + ".jpg");
+                tour.setCapacity(20);
+                tour.setAvailableSeats(20);
+                entityManager.persist(tour);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    @Benchmark
+    public void sequence() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                Tour tour = new Tour();
+                long n = next++;
+                tour.setName("Tour " + n);
+                tour.setCountry(countries.get((int) (n % countries.size())));
+                tour.setGuide(guides.get((int) (n % guides.size())));
+                tour.setPrice(BigDecimal.valueOf(100 + n % 900));
+                tour.setStartDate(BenchmarkData.FIRST_START.plusDays(n % 365));
+                tour.setEndDate(tour.getStartDate().plusDays(1 + n % 14));
+                tour.setImageUrl("https://example.com/tours/" + n + ".jpg");
+                tour.setCapacity(20);
+                tour.setAvailableSeats(20);
+                entityManager.persist(tour);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
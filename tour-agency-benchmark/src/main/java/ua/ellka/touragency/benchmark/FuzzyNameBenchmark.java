@@ -0,0 +1,159 @@
+package ua.ellka.touragency.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.ellka.touragency.index.FuzzyNameIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Затримка пошуку гіда з помилкою в назві: BK-дерево FuzzyNameIndex проти лінійного перебору
+// Левенштейна по тих самих термах (повна назва і кожне слово). Запити - реальні імена з однією-двома
+// помилками: ціла назва, одне слово і переставлені слова, що йдуть пошуком по кожному слову окремо.
+// ./mvnw -Pbenchmark -pl tour-agency-benchmark -am verify -DskipTests -Djmh.args=FuzzyNameBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzyNameBenchmark {
+    private static final String[] SYLLABLES = {"ko", "va", "len", "pet", "ren", "shev", "chen", "bon", "dar",
+            "mel", "nyk", "tka", "bo", "hun", "lys", "ma", "ri", "ol", "ena", "iv", "an", "dmy", "tro", "yur"};
+    private static final int QUERIES = 64;
+
+    @Param({"1000", "10000"})
+    public int guides;
+
+    @Param({"phrase", "word", "reordered"})
+    public String query;
+
+    private FuzzyNameIndex index;
+    private final Map<String, Set<Long>> terms = new HashMap<>();
+    private final List<String> queries = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(guides);
+        // Репозиторії не потрібні: без транзакції guideSaved змінює словник одразу
+        index = new FuzzyNameIndex(null, null);
+        for (long id = 1; id <= guides; id++) {
+            String name = capitalize(word(random, 2)) + " " + capitalize(word(random, 3));
+            names.add(name);
+            index.guideSaved(id, null, name);
+            for (String term : terms(name)) {
+                terms.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+            }
+        }
+
+        for (int i = 0; i < QUERIES; i++) {
+            String[] words = names.get(random.nextInt(names.size())).split(" ");
+            queries.add(switch (query) {
+                case "phrase" -> typo(random, words[0] + " " + words[1]);
+                case "word" -> typo(random, words[1]);
+                default -> typo(random, words[1]) + " " + words[0];
+            });
+        }
+    }
+
+    @Benchmark
+    public List<Long> bkTree() {
+        return index.findGuides(nextQuery());
+    }
+
+    // Те, що BK-дерево замінює: відстань до кожного терма словника, найближчі - у результат
+    @Benchmark
+    public Set<Long> linearScan() {
+        Set<Long> closest = new HashSet<>();
+        int best = Integer.MAX_VALUE;
+        for (String queryTerm : terms(nextQuery())) {
+            int maxDistance = queryTerm.length() <= 3 ? 0 : queryTerm.length() <= 6 ? 1 : 2;
+            for (Map.Entry<String, Set<Long>> term : terms.entrySet()) {
+                int distance = distance(queryTerm, term.getKey());
+                if (distance > maxDistance || distance > best) {
+                    continue;
+                }
+                if (distance < best) {
+                    best = distance;
+                    closest.clear();
+                }
+                closest.addAll(term.getValue());
+            }
+        }
+        return closest;
+    }
+
+    private String nextQuery() {
+        return queries.get(next++ & (QUERIES - 1));
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    // Перестановка двох сусідніх літер - дві правки, як "petrneko"
+    private static String typo(Random random, String text) {
+        int i = 1 + random.nextInt(text.length() - 3);
+        if (text.charAt(i) == ' ' || text.charAt(i + 1) == ' ') {
+            return text;
+        }
+        return text.substring(0, i) + text.charAt(i + 1) + text.charAt(i) + text.substring(i + 2);
+    }
+
+    private static Set<String> terms(String name) {
+        Set<String> terms = new HashSet<>();
+        String normalized = name.toLowerCase(Locale.ROOT).strip();
+        terms.add(normalized);
+        for (String word : normalized.split(" ")) {
+            if (word.length() > 2) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static int distance(String left, String right) {
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= right.length(); j++) {
+                int substitution = previous[j - 1] + (left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+}
@@ -0,0 +1,62 @@
+package ua.ellka.touragency.benchmark;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Копія Tour з id від identity-колонки, як до переходу на послідовності: ті самі колонки,
+// обмеження та індекси, щоб різниця у вставці була лише в генерації id
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "identity_tour", indexes = {
+        @Index(name = "idx_identity_tour_country_start", columnList = "country_id, start_date"),
+        @Index(name = "idx_identity_tour_guide_start", columnList = "guide_id, start_date"),
+        @Index(name = "idx_identity_tour_start_end_price", columnList = "start_date, end_date, price")
+})
+public class IdentityTour {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "country_id", nullable = false)
+    private Country country;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "guide_id", nullable = false)
+    private Guide guide;
+
+    @Column(name = "image_url", length = 512)
+    private String imageUrl;
+
+    private Integer capacity;
+
+    @Column(name = "available_seats")
+    private Integer availableSeats;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,126 @@
+package ua.ellka.touragency.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ua.ellka.touragency.filter.JwtFilter;
+import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+import ua.ellka.touragency.util.JwtUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Шлях запиту через JwtFilter (claims-only, як у застосунку за замовчуванням) з трьома варіантами JwtUtil:
+// perRequestParser - попередній код (ключ і парсер на кожен запит), sharedParser - лише спільний парсер,
+// verifiedTokens - спільний парсер і кеш перевірених токенів. Токени - пул користувачів, кожен шле свій
+// токен багато разів, як фронтенд.
+// ./mvnw -Pbenchmark -pl tour-agency-benchmark -am verify -DskipTests -Djmh.args="JwtFilterBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+    private static final int USERS = 256;
+
+    private final List<String> authorizations = new ArrayList<>();
+    private final FilterChain chain = (request, response) -> {
+    };
+    private JwtFilter perRequestParser;
+    private JwtFilter sharedParser;
+    private JwtFilter verifiedTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET);
+        for (long id = 1; id <= USERS; id++) {
+            TourAgencyUserDetails user = TourAgencyUserDetails.fromClaims(id, "user" + id + "@example.com", "CLIENT");
+            authorizations.add("Bearer " + jwtUtil.generateToken(user));
+        }
+
+        perRequestParser = new JwtFilter(new PerRequestParserJwtUtil(), null, true);
+        sharedParser = new JwtFilter(new SharedParserJwtUtil(), null, true);
+        verifiedTokens = new JwtFilter(jwtUtil, null, true);
+    }
+
+    @Benchmark
+    public Authentication perRequestParser() throws ServletException, IOException {
+        return filter(perRequestParser);
+    }
+
+    @Benchmark
+    public Authentication sharedParser() throws ServletException, IOException {
+        return filter(sharedParser);
+    }
+
+    @Benchmark
+    public Authentication verifiedTokens() throws ServletException, IOException {
+        return filter(verifiedTokens);
+    }
+
+    // OncePerRequestFilter позначає запит атрибутом, тож кожен виклик отримує новий запит
+    private Authentication filter(JwtFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tours");
+        request.addHeader("Authorization", authorizations.get(next++ & (USERS - 1)));
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // JwtUtil до кешування: HMAC-ключ і парсер будуються на кожен виклик
+    static class PerRequestParserJwtUtil extends JwtUtil {
+        PerRequestParserJwtUtil() {
+            super(SECRET);
+        }
+
+        @Override
+        public Claims parseToken(String jwt) {
+            JwtParser parser = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build();
+
+            return parser.parseSignedClaims(jwt).getPayload();
+        }
+    }
+
+    // Спільний парсер без кешу: підпис і JSON claims перевіряються на кожен запит
+    static class SharedParserJwtUtil extends JwtUtil {
+        private final JwtParser parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build();
+
+        SharedParserJwtUtil() {
+            super(SECRET);
+        }
+
+        @Override
+        public Claims parseToken(String jwt) {
+            return parser.parseSignedClaims(jwt).getPayload();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ua.ellka.touragency.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Перша сторінка доступних турів за періодом: індекс дат (інтервальне дерево + findTourDTOsByIdIn, як у
+// TourServiceImpl.getAvailableTours) проти запасного SQL findTourDTOsOverlapping.
+// week - тиждень посеред року, збігів багато (~4% турів); sparse - середина січня наступного року, де збігів
+// одиниці, і SQL перебирає всю таблицю: ні порядок за id, ні індекс за start_date <= to тут не допомагають
+// ./mvnw -Pbenchmark -pl tour-agency-benchmark -am verify -DskipTests -Djmh.args=TourAvailabilityBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 8, time = 2)
+@Fork(1)
+public class TourAvailabilityBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int QUERIES = 64;
+
+    @Param({"20000", "200000"})
+    public int tours;
+
+    @Param({"week", "sparse"})
+    public String window;
+
+    private ConfigurableApplicationContext context;
+    private TourRepo tourRepo;
+    private TourDateIndex tourDateIndex;
+    private final List<LocalDate[]> queries = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        tourRepo = context.getBean(TourRepo.class);
+        tourDateIndex = context.getBean(TourDateIndex.class);
+        BenchmarkData.tours(context, tours, null);
+        tourDateIndex.rebuild();
+
+        // Тури стартують протягом 2026 і тривають до 14 днів: 13-15 січня 2027 досягають лише ті, що стартують
+        // 30-31 грудня з найдовшою тривалістю (~0.06% турів)
+        Random random = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            LocalDate from = window.equals("week")
+                    ? BenchmarkData.FIRST_START.plusDays(30 + random.nextInt(300))
+                    : BenchmarkData.FIRST_START.plusDays(377 + random.nextInt(2));
+            queries.add(new LocalDate[]{from, from.plusDays(window.equals("week") ? 7 : 1)});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Лише пошук id у дереві, без читання турів з БД
+    @Benchmark
+    public List<Long> indexLookup() {
+        LocalDate[] query = nextQuery();
+        return tourDateIndex.findOverlapping(query[0], query[1], 0, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<TourDTO> index() {
+        LocalDate[] query = nextQuery();
+        List<Long> tourIds = tourDateIndex.findOverlapping(query[0], query[1], 0, PAGE_SIZE + 1);
+        return tourIds.isEmpty() ? List.of() : tourRepo.findTourDTOsByIdIn(tourIds);
+    }
+
+    @Benchmark
+    public List<TourDTO> sql() {
+        LocalDate[] query = nextQuery();
+        return tourRepo.findTourDTOsOverlapping(query[0], query[1], 0L, Limit.of(PAGE_SIZE + 1));
+    }
+
+    private LocalDate[] nextQuery() {
+        return queries.get(next++ & (QUERIES - 1));
+    }
+}
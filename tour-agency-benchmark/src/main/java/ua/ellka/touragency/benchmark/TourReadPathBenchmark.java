@@ -0,0 +1,100 @@
+package ua.ellka.touragency.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.mapper.TourMapper;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сторінка каталогу турів: проєкція TourDTO конструктором у JPQL проти читання сутностей з мапером.
+// entity - попередній шлях (Tour за курсором, ліниві країна і гід догружаються пакетами
+// default_batch_fetch_size), entityJoinFetch - найкраще, що дає маршрут через сутності.
+// Алокації на операцію: -Djmh.args="TourReadPathBenchmark -prof gc" (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TourReadPathBenchmark {
+    private static final int TOURS = 5000;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TourRepo tourRepo;
+    private TourMapper tourMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private long afterId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        tourRepo = context.getBean(TourRepo.class);
+        tourMapper = context.getBean(TourMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        BenchmarkData.tours(context, TOURS, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TourDTO> projection() {
+        return readOnlyTransaction.execute(status -> nextPage(tourRepo.findTourDTOsAfter(afterId, Limit.of(pageSize))));
+    }
+
+    @Benchmark
+    public List<TourDTO> entity() {
+        return readOnlyTransaction.execute(status -> nextPage(entityManager
+                .createQuery("SELECT t FROM Tour t WHERE t.id > :afterId ORDER BY t.id", Tour.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize)
+                .getResultStream()
+                .map(tourMapper::tourToTourDTO)
+                .toList()));
+    }
+
+    @Benchmark
+    public List<TourDTO> entityJoinFetch() {
+        return readOnlyTransaction.execute(status -> nextPage(entityManager
+                .createQuery("SELECT t FROM Tour t JOIN FETCH t.country JOIN FETCH t.guide " +
+                             "WHERE t.id > :afterId ORDER BY t.id", Tour.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize)
+                .getResultStream()
+                .map(tourMapper::tourToTourDTO)
+                .toList()));
+    }
+
+    // Курсор іде по всьому каталогу і повертається на початок, тож сторінки не повторюються підряд
+    private List<TourDTO> nextPage(List<TourDTO> page) {
+        afterId = page.size() < pageSize ? 0 : page.get(page.size() - 1).getId();
+        return page;
+    }
+}
@@ -17,4 +17,6 @@ public class BookingDTO {
     private TourDTO tour;
     private Long clientId;
     private LocalDate bookingDate;
+    // Утримання місця з кроку бронювання, яке підтверджується цим бронюванням
+    private String holdId;
 }
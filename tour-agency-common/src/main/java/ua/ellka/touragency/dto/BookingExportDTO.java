@@ -0,0 +1,22 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Плаский рядок експорту бронювань: без вкладеного TourDTO, щоб вибірка йшла однією проєкцією
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingExportDTO {
+    private Long id;
+    private Long tourId;
+    private String tourName;
+    private Long clientId;
+    private String clientName;
+    private LocalDate bookingDate;
+}
@@ -0,0 +1,19 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingIngestionDTO {
+    private String ticketId;
+    private BookingIngestionStatus status;
+    // Заповнюється після підтвердження
+    private Long bookingId;
+    // Причина відмови
+    private String message;
+}
@@ -0,0 +1,8 @@
+package ua.ellka.touragency.dto;
+
+public enum BookingIngestionStatus {
+    // Прийнято в чергу, ще не записано в БД
+    ACCEPTED,
+    CONFIRMED,
+    REJECTED
+}
@@ -0,0 +1,6 @@
+package ua.ellka.touragency.dto;
+
+public enum ExportFormat {
+    CSV,
+    JSON_LINES
+}
@@ -0,0 +1,18 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDTO<T> {
+    private List<T> items;
+    // Непрозорий курсор наступної сторінки, null якщо це остання сторінка
+    private String next;
+}
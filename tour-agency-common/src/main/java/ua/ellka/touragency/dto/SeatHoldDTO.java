@@ -0,0 +1,19 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatHoldDTO {
+    private String id;
+    private Long tourId;
+    private Long clientId;
+    private Instant expiresAt;
+}
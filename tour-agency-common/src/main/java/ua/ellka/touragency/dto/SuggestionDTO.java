@@ -0,0 +1,15 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDTO {
+    private SuggestionType type;
+    private String name;
+}
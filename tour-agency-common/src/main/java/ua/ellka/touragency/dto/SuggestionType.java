@@ -0,0 +1,7 @@
+package ua.ellka.touragency.dto;
+
+public enum SuggestionType {
+    TOUR,
+    COUNTRY,
+    GUIDE
+}
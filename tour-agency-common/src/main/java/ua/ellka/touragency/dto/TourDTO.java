@@ -24,4 +24,6 @@ public class TourDTO {
     private Long guideId;
     private String guideName;
     private String imageUrl;
+    private Integer capacity;
+    private Integer availableSeats;
 }
@@ -0,0 +1,24 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Умови фільтра турів, будь-яке поле може бути порожнім
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourFilterDTO {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private LocalDate startFrom;
+    private LocalDate endTo;
+    private String region;
+    private String guideLanguage;
+    private String countryName;
+}
@@ -0,0 +1,21 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourFilterResultDTO {
+    private List<TourDTO> tours;
+    // Непрозорий курсор наступної сторінки, null якщо це остання сторінка
+    private String next;
+    // Вимір -> значення -> кількість турів, що пройдуть фільтр, якщо обрати це значення
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,16 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourImportErrorDTO {
+    // Номер рядка у файлі імпорту (з 1)
+    private Long line;
+    private String message;
+}
@@ -0,0 +1,8 @@
+package ua.ellka.touragency.dto;
+
+public enum TourImportFormat {
+    // Перший рядок - заголовок з назвами полів TourDTO
+    CSV,
+    // Один JSON-об'єкт TourDTO на рядок
+    JSON_LINES
+}
@@ -0,0 +1,21 @@
+package ua.ellka.touragency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourImportReportDTO {
+    private long total;
+    private long imported;
+    private long failed;
+    // Лише перші помилки, щоб звіт для великого файлу лишався обмеженим
+    private List<TourImportErrorDTO> errors = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package ua.ellka.touragency.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TourProfitDTO {
+    private Long tourId;
+    private String tourName;
+    private BigDecimal price;
+    private Long bookingCount;
+    private BigDecimal revenue;
+    private BigDecimal profit;
+
+    // Використовується в JPQL constructor expression: кількість рахує БД, суму - тут
+    public TourProfitDTO(Long tourId, String tourName, BigDecimal price, Long bookingCount) {
+        this.tourId = tourId;
+        this.tourName = tourName;
+        this.price = price;
+        this.bookingCount = bookingCount;
+        this.revenue = price.multiply(BigDecimal.valueOf(bookingCount));
+        // Витрат у моделі немає, тому прибуток дорівнює виручці
+        this.profit = this.revenue;
+    }
+}
@@ -21,5 +21,6 @@ public interface TourMapper {
     // Мапінг з TourDTO на Tour (Вхідні дані) - ЛИШЕ ПРОСТІ ПОЛЯ
     @Mapping(target = "country", ignore = true)
     @Mapping(target = "guide", ignore = true)
+    @Mapping(target = "availableSeats", ignore = true)
     Tour tourDTOToTour(TourDTO tourDTO);
 }
@@ -15,9 +15,12 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tour_id", "client_id", "booking_date"}))
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Пул з 50 id на одне звернення до послідовності, і Hibernate може групувати INSERT у JDBC-пакети
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
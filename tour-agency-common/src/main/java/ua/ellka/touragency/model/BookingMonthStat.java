@@ -0,0 +1,23 @@
+package ua.ellka.touragency.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Попередньо агрегована кількість бронювань за рік-місяць (period у форматі YYYY-MM)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_month_stat")
+public class BookingMonthStat {
+    @Id
+    @Column(length = 7)
+    private String period;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+}
@@ -13,7 +13,8 @@ import org.hibernate.annotations.OnDeleteAction;
 @EqualsAndHashCode
 public class Client {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+    @SequenceGenerator(name = "client_seq", sequenceName = "client_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
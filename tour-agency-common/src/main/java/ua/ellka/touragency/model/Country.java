@@ -2,16 +2,23 @@ package ua.ellka.touragency.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "country")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_country_name_region", columnNames = {"name", "region"}),
+        indexes = @Index(name = "idx_country_region", columnList = "region"))
 @EqualsAndHashCode
 public class Country {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "country_seq")
+    @SequenceGenerator(name = "country_seq", sequenceName = "country_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
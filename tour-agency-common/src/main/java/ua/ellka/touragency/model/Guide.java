@@ -2,6 +2,8 @@ package ua.ellka.touragency.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -10,10 +12,14 @@ import org.hibernate.annotations.OnDeleteAction;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "guide")
+@Table(indexes = @Index(name = "idx_guide_language", columnList = "language"))
 @EqualsAndHashCode
 public class Guide {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guide_seq")
+    @SequenceGenerator(name = "guide_seq", sequenceName = "guide_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -0,0 +1,43 @@
+package ua.ellka.touragency.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Результат запиту з Idempotency-Key. Ключ унікальний у межах операції (scope) і користувача
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+    // Рядки вставляє лише нативний INSERT ... ON CONFLICT, тому id лишається за identity-колонкою
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String scope;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
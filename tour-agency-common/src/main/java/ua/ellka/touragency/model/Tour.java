@@ -2,6 +2,7 @@ package ua.ellka.touragency.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -13,10 +14,18 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+// Композитні індекси під фільтр /v1/tour/filter: вибір за країною або гідом звужується вікном дат,
+// а вікно дат без інших умов іде по (start_date, end_date)
+@Table(indexes = {
+        @Index(name = "idx_tour_country_start", columnList = "country_id, start_date"),
+        @Index(name = "idx_tour_guide_start", columnList = "guide_id, start_date"),
+        @Index(name = "idx_tour_start_end_price", columnList = "start_date, end_date, price")
+})
 @EqualsAndHashCode
 public class Tour {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tour_seq")
+    @SequenceGenerator(name = "tour_seq", sequenceName = "tour_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -43,4 +52,19 @@ public class Tour {
 
     @Column(name = "image_url", length = 512)
     private String imageUrl;
+
+    // null - кількість місць не обмежена.
+    // Місця змінюються лише умовними UPDATE у TourRepo, тому звичайний flush сутності їх не перезаписує
+    @Column(updatable = false)
+    private Integer capacity;
+
+    @Column(name = "available_seats", updatable = false)
+    private Integer availableSeats;
+
+    // Оптимістичне блокування: паралельне редагування туру не перетирає чужі зміни мовчки.
+    // Умовні UPDATE місць версію не змінюють, щоб бронювання не ламали редагування
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -24,4 +24,22 @@ api.interceptors.request.use(
     }
 );
 
+// Списки віддаються сторінками: курсор наступної сторінки приходить у заголовку Link (rel="next")
+const nextCursor = (linkHeader) => {
+    const match = linkHeader?.match(/<([^>]+)>;\s*rel="next"/);
+    return match ? new URL(match[1]).searchParams.get('after') : null;
+};
+
+// Завантажує всі сторінки списку підряд
+export const getAllPages = async (url) => {
+    const items = [];
+    let after = null;
+    do {
+        const response = await api.get(url, { params: after ? { after } : {} });
+        items.push(...response.data);
+        after = nextCursor(response.headers.link);
+    } while (after);
+    return items;
+};
+
 export default api;
\ No newline at end of file
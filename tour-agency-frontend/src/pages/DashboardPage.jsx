@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useContext } from 'react';
-import api from '../api/axiosConfig.js';
+import api, { getAllPages } from '../api/axiosConfig.js';
 import { AuthContext } from '../context/AuthContext.jsx';
 import TourCard from '../components/TourCard.jsx';
 import { Link, useNavigate } from 'react-router-dom';
@@ -68,8 +68,7 @@ const DashboardPage = () => {
             // АДМІН: Отримуємо всі тури
             title = "All System Tours";
             try {
-                const tourResponse = await api.get(endpoint);
-                setTours(tourResponse.data);
+                setTours(await getAllPages(endpoint));
             } catch (e) {
                 setError("No tours found in the system.");
                 setTours([]);
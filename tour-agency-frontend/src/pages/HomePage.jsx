@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useContext } from 'react';
-import api from '../api/axiosConfig.js';
+import api, { getAllPages } from '../api/axiosConfig.js';
 import TourCard from '../components/TourCard.jsx';
 import { AuthContext } from '../context/AuthContext.jsx';
 import { Link } from 'react-router-dom';
@@ -37,9 +37,11 @@ const HomePage = () => {
         }
 
         try {
-            const response = await api.get(endpoint);
-            setTours(response.data);
-            if (response.data.length === 0) {
+            const loadedTours = tab === TABS.POPULAR
+                ? (await api.get(endpoint)).data
+                : await getAllPages(endpoint);
+            setTours(loadedTours);
+            if (loadedTours.length === 0) {
                 setError(tab === TABS.POPULAR ? "No popular tours found." : "No tours found in the system.");
             }
         } catch (err) {
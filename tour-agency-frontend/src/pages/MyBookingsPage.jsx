@@ -1,6 +1,6 @@
 import React, { useEffect, useState, useContext } from 'react';
 import { AuthContext } from '../context/AuthContext.jsx';
-import api from '../api/axiosConfig.js';
+import api, { getAllPages } from '../api/axiosConfig.js';
 import TourCard from '../components/TourCard.jsx';
 import { useNavigate } from 'react-router-dom';
 // Видаляємо STATIC_IMAGE_PLACEHOLDER, оскільки він використовується лише всередині TourCard
@@ -33,10 +33,10 @@ const MyBookingsPage = () => {
                 }
 
                 // Крок 2: Використати Client ID для завантаження бронювань
-                const bookingsResponse = await api.get(`/booking/client/${clientId}`);
+                const bookings = await getAllPages(`/booking/client/${clientId}`);
 
                 // BookingDTO має містити повний об'єкт Tour (TourDTO)
-                const bookedTours = bookingsResponse.data.map(booking => booking.tour);
+                const bookedTours = bookings.map(booking => booking.tour);
 
                 setTours(bookedTours);
 
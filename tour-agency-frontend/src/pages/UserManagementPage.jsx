@@ -1,6 +1,6 @@
 import React, { useEffect, useState, useContext } from 'react';
 import { AuthContext } from '../context/AuthContext.jsx';
-import api from '../api/axiosConfig.js';
+import api, { getAllPages } from '../api/axiosConfig.js';
 import { useNavigate } from 'react-router-dom';
 
 const ROLES = ['ALL', 'ROLE_ADMIN', 'ROLE_GUIDE', 'ROLE_CLIENT'];
@@ -33,9 +33,9 @@ const UserManagementPage = () => {
 
         const fetchUsers = async () => {
             try {
-                const response = await api.get('/users');
-                setAllUsers(response.data);
-                setFilteredUsers(response.data);
+                const users = await getAllPages('/users');
+                setAllUsers(users);
+                setFilteredUsers(users);
             } catch (err) {
                 setError('Failed to load user list. Access denied or API error.');
                 console.error(err);
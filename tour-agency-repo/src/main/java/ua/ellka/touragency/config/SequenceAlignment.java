@@ -0,0 +1,50 @@
+package ua.ellka.touragency.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Перехід з IDENTITY на послідовності: ddl-auto створює послідовність з 1, тому при старті
+// зсуваємо її за поточний максимум id таблиці, щоб нові пули id не перетнулись з існуючими рядками.
+// Послідовність лише просувається вперед, тому повторний запуск безпечний.
+// Старі identity-колонки лишаються "generated by default" і приймають явні id від Hibernate,
+// їх DEFAULT можна прибрати окремо (ALTER TABLE ... ALTER COLUMN id DROP IDENTITY) після переходу всіх інстансів
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenceAlignment {
+    private static final Logger log = LoggerFactory.getLogger(SequenceAlignment.class);
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Таблиця -> послідовність її id
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "booking", "booking_seq",
+            "tour", "tour_seq",
+            "client", "client_seq",
+            "guide", "guide_seq",
+            "country", "country_seq",
+            "users", "users_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach((table, sequence) -> {
+            Long next = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", " +
+                    "(SELECT last_value FROM " + sequence + ")))",
+                    Long.class);
+            log.info("Sequence {} aligned with table {} at {}", sequence, table, next);
+        });
+    }
+}
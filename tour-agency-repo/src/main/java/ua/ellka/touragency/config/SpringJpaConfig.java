@@ -1,9 +1,30 @@
 package ua.ellka.touragency.config;
 
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+
 @Configuration
 @EnableTransactionManagement
 public class SpringJpaConfig {
+    private static final URI SECOND_LEVEL_CACHE_CONFIG = URI.create("classpath:hibernate-cache.conf");
+
+    // hibernate.javax.cache.uri не підходить: Hibernate перетворює його на URL ресурсу (jar:...!/hibernate-cache.conf),
+    // а Caffeine читає конфігурацію лише з classpath: чи file: і мовчки бере типову - регіони без меж і store-by-value.
+    // Тому менеджер кешу створюється тут, а закриває його Hibernate разом з фабрикою сесій
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> {
+            ClassLoader classLoader = SpringJpaConfig.class.getClassLoader();
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName(), classLoader);
+            properties.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(SECOND_LEVEL_CACHE_CONFIG, classLoader));
+        };
+    }
 }
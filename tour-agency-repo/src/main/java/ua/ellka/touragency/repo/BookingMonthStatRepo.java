@@ -0,0 +1,40 @@
+package ua.ellka.touragency.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.model.BookingMonthStat;
+
+import java.util.List;
+
+public interface BookingMonthStatRepo extends JpaRepository<BookingMonthStat, String> {
+    List<BookingMonthStat> findAllByOrderByPeriodAsc();
+
+    // Атомарний upsert лічильника, без read-modify-write у застосунку
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO booking_month_stat (period, booking_count) VALUES (:period, :delta) " +
+                   "ON CONFLICT (period) DO UPDATE SET booking_count = booking_month_stat.booking_count + :delta",
+           nativeQuery = true)
+    int increment(@Param("period") String period, @Param("delta") long delta);
+
+    // Звірка одним оператором: лічильник кожного місяця перераховується з таблиці бронювань
+    // без видалення рядків, тож паралельний upsert не натрапляє на порожню таблицю
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO booking_month_stat (period, booking_count) " +
+                   "SELECT TO_CHAR(b.booking_date, 'YYYY-MM'), COUNT(*) FROM booking b " +
+                   "GROUP BY TO_CHAR(b.booking_date, 'YYYY-MM') " +
+                   "ON CONFLICT (period) DO UPDATE SET booking_count = EXCLUDED.booking_count",
+           nativeQuery = true)
+    int recountFromBookings();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM booking_month_stat " +
+                   "WHERE period NOT IN (SELECT DISTINCT TO_CHAR(b.booking_date, 'YYYY-MM') FROM booking b)",
+           nativeQuery = true)
+    int deleteMonthsWithoutBookings();
+}
@@ -1,19 +1,47 @@
 package ua.ellka.touragency.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ua.ellka.touragency.dto.BookingExportDTO;
 import ua.ellka.touragency.model.Booking;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepo extends JpaRepository<Booking, Long> {
-    List<Booking> findBookingsByClientId(Long clientId);
-    List<Booking> findBookingsByTourId(Long tourId);
+    // ClientDTO бере email з client.user, а EAGER-зв'язок tour інакше довантажувався б окремими SELECT,
+    // тому клієнт, користувач і тур приходять одним запитом
+    @EntityGraph(attributePaths = {"client", "client.user", "tour"})
     List<Booking> findBookingsByTourCountryId(Long countryId);
 
+    @EntityGraph(attributePaths = {"tour", "tour.country", "tour.guide"})
+    List<Booking> findByClientIdAndIdGreaterThanOrderByIdAsc(Long clientId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"tour", "tour.country", "tour.guide"})
+    List<Booking> findByTourIdAndIdGreaterThanOrderByIdAsc(Long tourId, Long afterId, Limit limit);
+
+    String BOOKING_EXPORT_SELECT = "SELECT new ua.ellka.touragency.dto.BookingExportDTO(" +
+            "b.id, t.id, t.name, c.id, c.name, b.bookingDate) " +
+            "FROM Booking b JOIN b.tour t JOIN b.client c ";
+
+    // Потокові вибірки для експорту: проєкція без сутностей, курсор по FETCH_SIZE рядків
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TourRepo.EXPORT_FETCH_SIZE))
+    @Query(BOOKING_EXPORT_SELECT + "ORDER BY b.id")
+    Stream<BookingExportDTO> streamAllBookingExports();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TourRepo.EXPORT_FETCH_SIZE))
+    @Query(BOOKING_EXPORT_SELECT + "WHERE t.id = :tourId ORDER BY b.id")
+    Stream<BookingExportDTO> streamBookingExportsByTourId(@Param("tourId") Long tourId);
+
     @Query("SELECT b FROM Booking b " +
            "WHERE b.tour.id = :tourId " +
            "AND b.client.id = :clientId " +
@@ -24,17 +52,25 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
             @Param("bookingDate") LocalDate bookingDate
     );
 
-    @Query("SELECT TO_CHAR(b.bookingDate, 'Month') AS month, COUNT(b) AS count FROM Booking b GROUP BY TO_CHAR(b.bookingDate, 'Month')")
-    List<BookingCountByMonthResult> findBookingCountsByMonth();
+    // Перевірка дублікатів для цілого пакета бронювань одним запитом
+    @Query("SELECT b.tour.id AS tourId, b.client.id AS clientId, b.bookingDate AS bookingDate FROM Booking b " +
+           "WHERE b.tour.id IN :tourIds AND b.client.id IN :clientIds")
+    List<BookingKeyResult> findBookingKeys(@Param("tourIds") Collection<Long> tourIds,
+                                           @Param("clientIds") Collection<Long> clientIds);
 
-    interface BookingCountByMonthResult {
-        String getMonth();
-        Long getCount();
+    interface BookingKeyResult {
+        Long getTourId();
+        Long getClientId();
+        LocalDate getBookingDate();
     }
 
     @Query("SELECT b.tour.id AS tourId, COUNT(b) AS bookingCount FROM Booking b GROUP BY b.tour.id")
     List<TourBookingCountResult> findBookingCountsByTour();
 
+    @Query("SELECT b.tour.id AS tourId, COUNT(b) AS bookingCount FROM Booking b " +
+           "WHERE b.client.id = :clientId GROUP BY b.tour.id")
+    List<TourBookingCountResult> findBookingCountsByClientId(@Param("clientId") Long clientId);
+
     interface TourBookingCountResult {
         Long getTourId();
         Long getBookingCount();
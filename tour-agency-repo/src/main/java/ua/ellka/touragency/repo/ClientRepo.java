@@ -1,8 +1,11 @@
 package ua.ellka.touragency.repo;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ua.ellka.touragency.model.Client;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ClientRepo extends JpaRepository<Client, Long> {
@@ -10,4 +13,6 @@ public interface ClientRepo extends JpaRepository<Client, Long> {
     Optional<Client> findByPhone(String phone);
     Optional<Client> findByName(String name);
     Optional<Client> findByUserId(Long userId);
+    List<Client> findByUserIdIn(Collection<Long> userIds);
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
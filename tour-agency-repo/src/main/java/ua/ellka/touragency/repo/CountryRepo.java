@@ -1,12 +1,40 @@
 package ua.ellka.touragency.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ua.ellka.touragency.model.Country;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CountryRepo extends JpaRepository<Country, Long> {
-    Optional<Country> findByNameAndRegion(String name, String region);
     List<Country> findByName(String name);
+
+    List<Country> findByNameIn(Collection<String> names);
+
+    // Атомарний upsert за унікальним (name, region): паралельні виклики отримують один і той самий id.
+    // DO UPDATE без зміни даних потрібен, щоб RETURNING повертав id і для вже існуючого рядка.
+    // nextval забирає цілий блок pooled-послідовності, тому id не перетинається з тими, що роздає Hibernate
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "country"))
+    @Query(value = "INSERT INTO country (id, name, region) VALUES (nextval('country_seq'), :name, :region) " +
+                   "ON CONFLICT (name, region) DO UPDATE SET name = EXCLUDED.name " +
+                   "RETURNING id",
+           nativeQuery = true)
+    Long upsert(@Param("name") String name, @Param("region") String region);
+
+    // Як upsert, але для вже існуючої країни нічого не повертає
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "country"))
+    @Query(value = "INSERT INTO country (id, name, region) VALUES (nextval('country_seq'), :name, :region) " +
+                   "ON CONFLICT (name, region) DO NOTHING " +
+                   "RETURNING id",
+           nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("name") String name, @Param("region") String region);
 }
@@ -1,6 +1,11 @@
 package ua.ellka.touragency.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ua.ellka.touragency.model.Guide;
 
 import java.util.List;
@@ -8,6 +13,20 @@ import java.util.Optional;
 
 public interface GuideRepo extends JpaRepository<Guide, Long> {
     Optional<Guide> findByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Guide> findByUserId(Long userId);
+
     List<Guide> findByNameContainingIgnoreCase(String name);
+
+    // Лише id та ім'я, без підтягування користувача гіда
+    @Query("SELECT g.id AS id, g.name AS name FROM Guide g")
+    List<GuideNameResult> findAllNames();
+
+    interface GuideNameResult {
+        Long getId();
+        String getName();
+    }
+
+    List<Guide> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
@@ -0,0 +1,47 @@
+package ua.ellka.touragency.repo;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.model.IdempotencyRecord;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepo extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByScopeAndUserIdAndIdempotencyKey(String scope, Long userId, String idempotencyKey);
+
+    // Захоплення ключа: паралельний запит з тим самим ключем чекає на унікальному індексі,
+    // доки перша транзакція не завершиться, і після її коміту отримує 0
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_record"))
+    @Query(value = "INSERT INTO idempotency_record (scope, user_id, idempotency_key, request_hash, created_at) " +
+                   "VALUES (:scope, :userId, :idempotencyKey, :requestHash, :createdAt) " +
+                   "ON CONFLICT (scope, user_id, idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("scope") String scope,
+              @Param("userId") Long userId,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseBody = :responseBody " +
+           "WHERE r.scope = :scope AND r.userId = :userId AND r.idempotencyKey = :idempotencyKey")
+    int complete(@Param("scope") String scope,
+                 @Param("userId") Long userId,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
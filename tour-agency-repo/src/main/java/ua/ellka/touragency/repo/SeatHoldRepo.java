@@ -0,0 +1,25 @@
+package ua.ellka.touragency.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.model.SeatHold;
+
+import java.time.Instant;
+
+public interface SeatHoldRepo extends JpaRepository<SeatHold, String> {
+    boolean existsByTourIdAndClientId(Long tourId, Long clientId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SeatHold h SET h.expiresAt = :expiresAt WHERE h.id = :id")
+    int updateExpiresAt(@Param("id") String id, @Param("expiresAt") Instant expiresAt);
+
+    // Видалення без попереднього SELECT сутності
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.id = :id")
+    int deleteHold(@Param("id") String id);
+}
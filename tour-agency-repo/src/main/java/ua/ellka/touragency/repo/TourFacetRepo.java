@@ -0,0 +1,11 @@
+package ua.ellka.touragency.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+import ua.ellka.touragency.model.Tour;
+
+import java.util.Map;
+
+public interface TourFacetRepo {
+    // Кількість турів за кожним значенням атрибута (наприклад "country.region") серед турів, що задовольняють spec
+    Map<String, Long> countByAttribute(String path, Specification<Tour> spec);
+}
@@ -0,0 +1,46 @@
+package ua.ellka.touragency.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import ua.ellka.touragency.model.Tour;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TourFacetRepoImpl implements TourFacetRepo {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Один GROUP BY на вимір: рахує БД, у пам'ять приходять лише пари значення-кількість
+    @Override
+    public Map<String, Long> countByAttribute(String path, Specification<Tour> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Tour> root = query.from(Tour.class);
+
+        String[] attributes = path.split("\\.");
+        Path<String> value = root.get(attributes[0]).get(attributes[1]);
+        query.multiselect(value, cb.count(root))
+                .groupBy(value)
+                .orderBy(cb.desc(cb.count(root)), cb.asc(value));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
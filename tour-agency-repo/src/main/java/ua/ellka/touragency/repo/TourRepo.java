@@ -1,15 +1,173 @@
 package ua.ellka.touragency.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourProfitDTO;
 import ua.ellka.touragency.model.Tour;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TourRepo extends JpaRepository<Tour, Long> {
-    List<Tour> findToursByCountryName(String countryName);
-    List<Tour> findToursByGuideName(String guideName);
-    List<Tour> findToursByGuideId(Long guideId);
+public interface TourRepo extends JpaRepository<Tour, Long>, JpaSpecificationExecutor<Tour>, TourFacetRepo {
     Optional<Tour> findByName(String name);
-    List<Tour> findByGuideIdIn(List<Long> guideIds);
+
+    @Query("SELECT t.name FROM Tour t WHERE t.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // Проєкції для читання: одразу вибираємо колонки в TourDTO без гідратації сутностей
+    // і без знімків для dirty-checking у persistence context
+    String TOUR_DTO_CONSTRUCTOR = "new ua.ellka.touragency.dto.TourDTO(" +
+            "t.id, t.name, c.id, c.name, c.region, t.startDate, t.endDate, t.price, g.id, g.name, t.imageUrl, " +
+            "t.capacity, t.availableSeats) ";
+    String EXPORT_FETCH_SIZE = "1000";
+    String TOUR_DTO_SELECT = "SELECT " + TOUR_DTO_CONSTRUCTOR + "FROM Tour t JOIN t.country c JOIN t.guide g ";
+
+    @Query(TOUR_DTO_SELECT + "WHERE t.id > :afterId ORDER BY t.id")
+    List<TourDTO> findTourDTOsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Експорт читає курсором по FETCH_SIZE рядків, а не всю таблицю в пам'ять
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TOUR_DTO_SELECT + "ORDER BY t.id")
+    Stream<TourDTO> streamAllTourDTOs();
+
+    // Поля повнотекстового індексу турів
+    @Query("SELECT t.id AS id, t.name AS name, c.name AS countryName, c.region AS countryRegion, " +
+           "g.name AS guideName, g.language AS guideLanguage " +
+           "FROM Tour t JOIN t.country c JOIN t.guide g")
+    List<TourSearchFieldsResult> findTourSearchFields();
+
+    interface TourSearchFieldsResult {
+        Long getId();
+        String getName();
+        String getCountryName();
+        String getCountryRegion();
+        String getGuideName();
+        String getGuideLanguage();
+    }
+
+    @Query("SELECT t.id AS id, t.startDate AS startDate, t.endDate AS endDate FROM Tour t " +
+           "WHERE t.startDate IS NOT NULL AND t.endDate IS NOT NULL")
+    List<TourDateRangeResult> findTourDateRanges();
+
+    interface TourDateRangeResult {
+        Long getId();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
+    // Той самий перетин періодів у SQL: запасний шлях, поки індекс у пам'яті не побудований
+    @Query(TOUR_DTO_SELECT + "WHERE t.startDate <= :to AND t.endDate >= :from AND t.id > :afterId ORDER BY t.id")
+    List<TourDTO> findTourDTOsOverlapping(@Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query(TOUR_DTO_SELECT + "WHERE t.id = :id")
+    Optional<TourDTO> findTourDTOById(@Param("id") Long id);
+
+    @Query(TOUR_DTO_SELECT + "WHERE t.id IN :ids")
+    List<TourDTO> findTourDTOsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(TOUR_DTO_SELECT + "WHERE c.name = :countryName ORDER BY t.id")
+    List<TourDTO> findTourDTOsByCountryName(@Param("countryName") String countryName);
+
+    @Query(TOUR_DTO_SELECT + "WHERE c.id IN :countryIds ORDER BY t.id")
+    List<TourDTO> findTourDTOsByCountryIdIn(@Param("countryIds") List<Long> countryIds);
+
+    @Query(TOUR_DTO_SELECT + "WHERE g.id = :guideId ORDER BY t.id")
+    List<TourDTO> findTourDTOsByGuideId(@Param("guideId") Long guideId);
+
+    @Query(TOUR_DTO_SELECT + "WHERE g.id IN :guideIds ORDER BY t.id")
+    List<TourDTO> findTourDTOsByGuideIdIn(@Param("guideIds") List<Long> guideIds);
+
+    // Top-K за кількістю бронювань одним запитом (GROUP BY по первинних ключах)
+    @Query("SELECT " + TOUR_DTO_CONSTRUCTOR +
+           "FROM Booking b JOIN b.tour t JOIN t.country c JOIN t.guide g " +
+           "GROUP BY t.id, c.id, g.id ORDER BY COUNT(b) DESC, t.id")
+    List<TourDTO> findMostPopularTourDTOs(Limit limit);
+
+    // Прибуток рахується агрегатом у БД, без завантаження сутностей Booking
+    String TOUR_PROFIT_SELECT = "SELECT new ua.ellka.touragency.dto.TourProfitDTO(t.id, t.name, t.price, COUNT(b)) " +
+            "FROM Tour t LEFT JOIN Booking b ON b.tour = t ";
+
+    @Query(TOUR_PROFIT_SELECT + "WHERE t.id = :tourId GROUP BY t.id, t.name, t.price")
+    Optional<TourProfitDTO> findTourProfit(@Param("tourId") Long tourId);
+
+    @Query(TOUR_PROFIT_SELECT + "WHERE t.guide.id = :guideId GROUP BY t.id, t.name, t.price ORDER BY t.id")
+    List<TourProfitDTO> findTourProfitsByGuideId(@Param("guideId") Long guideId);
+
+    @Query("SELECT t.id FROM Tour t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.availableSeats FROM Tour t WHERE t.id = :id")
+    Optional<Integer> findAvailableSeatsById(@Param("id") Long id);
+
+    // Місця списуються одним умовним UPDATE: рядок блокується лише на час оператора,
+    // а умова available_seats > 0 не дає продати більше місць, ніж є.
+    // Простір запиту "tour" обмежує інвалідацію L2-кешу самою таблицею турів
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET available_seats = available_seats - 1 WHERE id = :id AND available_seats > 0",
+           nativeQuery = true)
+    int reserveSeat(@Param("id") Long id);
+
+    // Пакетне списання кількох місць одним оператором (write-behind бронювання)
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET available_seats = available_seats - :seats WHERE id = :id AND available_seats >= :seats",
+           nativeQuery = true)
+    int reserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET available_seats = available_seats + 1 WHERE id = :id AND available_seats < capacity",
+           nativeQuery = true)
+    int releaseSeat(@Param("id") Long id);
+
+    // Повернення кількох місць одним оператором (каскадне видалення бронювань клієнта)
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET available_seats = LEAST(capacity, available_seats + :seats) " +
+                   "WHERE id = :id AND capacity IS NOT NULL",
+           nativeQuery = true)
+    int releaseSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    // Зміна місткості зсуває залишок на різницю, тож паралельні бронювання не губляться
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET available_seats = available_seats + (:capacity - capacity), capacity = :capacity " +
+                   "WHERE id = :id AND capacity IS NOT NULL AND available_seats + (:capacity - capacity) >= 0",
+           nativeQuery = true)
+    int changeCapacity(@Param("id") Long id, @Param("capacity") int capacity);
+
+    // Перше обмеження місткості: залишок рахується від уже зроблених бронювань
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tour"))
+    @Query(value = "UPDATE tour SET capacity = :capacity, " +
+                   "available_seats = :capacity - (SELECT COUNT(*) FROM booking b WHERE b.tour_id = tour.id) " +
+                   "WHERE id = :id AND capacity IS NULL " +
+                   "AND :capacity >= (SELECT COUNT(*) FROM booking b WHERE b.tour_id = tour.id)",
+           nativeQuery = true)
+    int limitCapacity(@Param("id") Long id, @Param("capacity") int capacity);
 }
@@ -0,0 +1,65 @@
+package ua.ellka.touragency.repo;
+
+import org.springframework.data.jpa.domain.Specification;
+import ua.ellka.touragency.model.Tour;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Умови фільтра турів. null-параметр дає null-специфікацію, яку Specification.allOf пропускає.
+// Країна і гід адресуються шляхом (t.country.region), тож Hibernate перевикористовує один JOIN
+public final class TourSpecifications {
+    public static final String COUNTRY_NAME = "country.name";
+    public static final String COUNTRY_REGION = "country.region";
+    public static final String GUIDE_LANGUAGE = "guide.language";
+
+    private TourSpecifications() {
+    }
+
+    public static Specification<Tour> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+            }
+            return cb.between(root.get("price"), minPrice, maxPrice);
+        };
+    }
+
+    // Тур повністю вміщується у вікно [from, to]
+    public static Specification<Tour> withinDates(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get("endDate"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("startDate"), from);
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("startDate"), from),
+                    cb.lessThanOrEqualTo(root.get("endDate"), to));
+        };
+    }
+
+    public static Specification<Tour> attributeEquals(String path, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            String[] attributes = path.split("\\.");
+            return cb.equal(root.get(attributes[0]).get(attributes[1]), value);
+        };
+    }
+
+    public static Specification<Tour> idGreaterThan(long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+}
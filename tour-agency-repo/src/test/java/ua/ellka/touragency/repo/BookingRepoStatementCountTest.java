@@ -0,0 +1,134 @@
+package ua.ellka.touragency.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import ua.ellka.touragency.model.Booking;
+import ua.ellka.touragency.model.Client;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Графи сутностей мають вантажити весь список одним SELECT, а не 1 + N на кожен зв'язок
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class BookingRepoStatementCountTest {
+    private static final int ROWS = 1000;
+    private static final int COUNTRIES = 10;
+    private static final int GUIDES = 20;
+    private static final LocalDate BOOKING_DATE = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepo bookingRepo;
+
+    private Statistics statistics;
+    private Client frequentClient;
+    private Country firstCountry;
+
+    @BeforeEach
+    void setUp() {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < COUNTRIES; i++) {
+            countries.add(entityManager.persist(new Country(null, "Country " + i, "Region " + i)));
+        }
+        List<Guide> guides = new ArrayList<>();
+        for (int i = 0; i < GUIDES; i++) {
+            guides.add(entityManager.persist(new Guide(null, "Guide " + i, "EN", user("guide" + i))));
+        }
+        List<Tour> tours = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Tour tour = new Tour();
+            tour.setName("Tour " + i);
+            tour.setCountry(countries.get(i % COUNTRIES));
+            tour.setGuide(guides.get(i % GUIDES));
+            tour.setPrice(BigDecimal.TEN);
+            tours.add(entityManager.persist(tour));
+        }
+
+        // Один клієнт з бронюванням кожного туру і ROWS клієнтів з одним бронюванням у турах першої країни
+        frequentClient = entityManager.persist(new Client(null, "Frequent", "FR000", "+000", user("frequent")));
+        for (Tour tour : tours) {
+            entityManager.persist(new Booking(null, tour, frequentClient, BOOKING_DATE));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Client client = entityManager.persist(
+                    new Client(null, "Client " + i, "PS" + i, "+380" + i, user("client" + i)));
+            entityManager.persist(new Booking(null, tours.get((i * COUNTRIES) % ROWS), client, BOOKING_DATE));
+        }
+        firstCountry = countries.get(0);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void clientBookingPageLoadsToursWithCountryAndGuideInOneStatement() {
+        List<Booking> bookings = bookingRepo.findByClientIdAndIdGreaterThanOrderByIdAsc(
+                frequentClient.getId(), 0L, Limit.of(ROWS));
+
+        bookings.forEach(booking -> {
+            booking.getTour().getCountry().getName();
+            booking.getTour().getGuide().getName();
+        });
+
+        assertThat(bookings).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tourBookingPageLoadsTourGraphInOneStatement() {
+        Long tourId = bookingRepo.findByClientIdAndIdGreaterThanOrderByIdAsc(frequentClient.getId(), 0L, Limit.of(1))
+                .get(0).getTour().getId();
+        statistics.clear();
+
+        List<Booking> bookings = bookingRepo.findByTourIdAndIdGreaterThanOrderByIdAsc(tourId, 0L, Limit.of(ROWS));
+
+        bookings.forEach(booking -> {
+            booking.getTour().getCountry().getName();
+            booking.getTour().getGuide().getName();
+        });
+
+        assertThat(bookings).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void clientsByCountryLoadClientUsersInOneStatement() {
+        List<Booking> bookings = bookingRepo.findBookingsByTourCountryId(firstCountry.getId());
+
+        bookings.forEach(booking -> booking.getClient().getUser().getEmail());
+
+        assertThat(bookings).hasSize(ROWS + ROWS / COUNTRIES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private User user(String login) {
+        return entityManager.persist(new User(null, login + "@test.com", "password", "ROLE_CLIENT"));
+    }
+}
@@ -0,0 +1,11 @@
+package ua.ellka.touragency.repo;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import ua.ellka.touragency.model.Tour;
+
+// Конфігурація для @DataJpaTest: у модулі репозиторіїв немає власного застосунку
+@SpringBootApplication
+@EntityScan(basePackageClasses = Tour.class)
+class RepoTestApplication {
+}
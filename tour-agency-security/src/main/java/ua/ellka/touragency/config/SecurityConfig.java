@@ -1,10 +1,15 @@
 package ua.ellka.touragency.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.CachingUserDetailsService;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -12,6 +17,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -30,6 +36,7 @@ import ua.ellka.touragency.service.GoogleOidcUserService;
 import ua.ellka.touragency.service.TourAgencyUserDetailService;
 import ua.ellka.touragency.util.JwtUtil;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -74,6 +81,8 @@ public class SecurityConfig {
 
                         .requestMatchers("/v1/guide/**", "/v1/tour/**").hasAnyRole("GUIDE", "ADMIN")
 
+                        .requestMatchers(HttpMethod.GET, "/v1/booking/export").hasRole("ADMIN")
+
                         .requestMatchers(HttpMethod.GET, "/v1/booking/tour/**")
                         .hasAnyRole("CLIENT", "GUIDE", "ADMIN")
 
@@ -118,8 +127,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtFilter jwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
-        return new JwtFilter(jwtUtil, userDetailsService);
+    public JwtFilter jwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                               @Value("${jwt.claims-only:true}") boolean claimsOnly,
+                               @Value("${jwt.user-cache-ttl:30s}") Duration userCacheTtl) {
+        if (claimsOnly) {
+            return new JwtFilter(jwtUtil, userDetailsService, true);
+        }
+
+        // Режим з повним користувачем: короткоживучий кеш, щоб не робити SELECT на кожен запит
+        CaffeineCache userCache = new CaffeineCache("jwtUsers", Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(userCacheTtl)
+                .build());
+
+        CachingUserDetailsService cachingUserDetailsService = new CachingUserDetailsService(userDetailsService);
+        cachingUserDetailsService.setUserCache(new SpringCacheBasedUserCache(userCache));
+
+        return new JwtFilter(jwtUtil, cachingUserDetailsService, false);
     }
 
     @Bean
@@ -145,6 +169,9 @@ public class SecurityConfig {
         // Дозволяємо всі заголовки (Authorization, Content-Type тощо)
         configuration.setAllowedHeaders(List.of("*"));
 
+        // Курсор наступної сторінки (Link) і версію ресурсу (ETag) браузер віддає скрипту лише з явного дозволу
+        configuration.setExposedHeaders(List.of(HttpHeaders.LINK, HttpHeaders.ETAG));
+
         // Дозволяємо передавати куки/credentials (якщо знадобиться)
         configuration.setAllowCredentials(true);
 
@@ -21,6 +21,8 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailService;
+    // true - принципал будується з claims токена без звернення до БД
+    private final boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -37,7 +39,9 @@ public class JwtFilter extends OncePerRequestFilter {
                 SecurityContext context = SecurityContextHolder.getContext();
 
                 if (username != null && context.getAuthentication() == null) {
-                    TourAgencyUserDetails userDetails = (TourAgencyUserDetails) userDetailService.loadUserByUsername(username);
+                    TourAgencyUserDetails userDetails = claimsOnly
+                            ? jwtUtil.toUserDetails(claims)
+                            : (TourAgencyUserDetails) userDetailService.loadUserByUsername(username);
 
                     Authentication auth = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
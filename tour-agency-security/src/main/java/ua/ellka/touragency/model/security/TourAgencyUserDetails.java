@@ -13,6 +13,11 @@ import java.util.List;
 public class TourAgencyUserDetails implements UserDetails {
     private final User user;
 
+    // Принципал, відновлений лише з перевірених claims токена (без пароля і без запиту до БД)
+    public static TourAgencyUserDetails fromClaims(Long id, String email, String role) {
+        return new TourAgencyUserDetails(new User(id, email, null, role));
+    }
+
     public Long getId(){
         return user.getId();
     }
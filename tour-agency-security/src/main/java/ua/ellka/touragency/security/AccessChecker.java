@@ -37,6 +37,16 @@ public class AccessChecker {
         return guideRepo.findByUserId(userId).isPresent();
     }
 
+    // На відміну від isGuideOwner, приймає ID профілю гіда, а не ID користувача
+    public boolean isGuideProfileOwner(Long guideId) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) return false;
+
+        return guideRepo.findById(guideId)
+                .map(guide -> guide.getUser().getId().equals(currentUserId))
+                .orElse(false);
+    }
+
     private Long getCurrentUserId() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof TourAgencyUserDetails userDetails) {
@@ -1,5 +1,8 @@
 package ua.ellka.touragency.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
@@ -9,22 +12,47 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import ua.ellka.touragency.model.security.TourAgencyUserDetails;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
     private static final Long TOKEN_VALID = 24 * 60 * 60 * 1000L;
+    private static final int VERIFIED_TOKENS_MAX_SIZE = 10_000;
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // Ключ і парсер незмінні та потокобезпечні, тому створюються один раз
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    public Claims parseToken(String jwt) {
-        JwtParser parser = Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+    // Вже перевірені токени (ключ - SHA-256 від токена), запис живе не довше за exp самого токена
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKENS_MAX_SIZE)
+            .expireAfter(new TokenExpiry())
+            .build();
+
+    public JwtUtil(@Value("${jwt.secret}") String secretKey) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
                 .build();
+    }
+
+    public Claims parseToken(String jwt) {
+        return verifiedTokens.get(digest(jwt), key -> parser.parseSignedClaims(jwt).getPayload());
+    }
+
+    public TourAgencyUserDetails toUserDetails(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        String role = roles == null || roles.isEmpty() ? null : String.valueOf(roles.get(0));
 
-        return parser.parseSignedClaims(jwt).getPayload();
+        return TourAgencyUserDetails.fromClaims(Long.valueOf(claims.getId()), claims.getSubject(), role);
     }
 
     public String generateToken(TourAgencyUserDetails user) {
@@ -36,7 +64,38 @@ public class JwtUtil {
                         .collect(Collectors.toList()))
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + TOKEN_VALID))
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .signWith(signingKey)
                 .compact();
     }
+
+    private static String digest(String jwt) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(jwt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long ttlMillis = expiration == null
+                    ? TOKEN_VALID
+                    : expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
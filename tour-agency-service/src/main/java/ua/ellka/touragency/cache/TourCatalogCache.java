@@ -0,0 +1,79 @@
+package ua.ellka.touragency.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class TourCatalogCache {
+    public static final String TOUR_BY_ID = "tourById";
+    public static final String TOUR_PAGES = "tourPages";
+    public static final String TOURS_BY_COUNTRY = "toursByCountry";
+    public static final String TOURS_BY_GUIDE = "toursByGuide";
+
+    private final CacheManager cacheManager;
+
+    // Версії каталогу для умовних GET: мітка часу в мс, що строго зростає з кожною зміною.
+    // Відповідь 304 рахується лише з цих лічильників, без БД і серіалізації
+    private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis());
+    private final Map<Long, Long> tourVersions = new ConcurrentHashMap<>();
+    private volatile long baselineVersion = catalogVersion.get();
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    // Тур, що не змінювався окремо, має версію останньої повної інвалідації (або старту)
+    public long getTourVersion(Long tourId) {
+        return Math.max(tourVersions.getOrDefault(tourId, 0L), baselineVersion);
+    }
+
+    // Точкова інвалідація після запису туру: сам тур, списки його гіда і країни.
+    // Сторінки каталогу зсуваються при будь-якій зміні, тому їх очищуємо повністю
+    public void evictTour(Long tourId, Long guideId, String countryName) {
+        evict(TOUR_BY_ID, tourId);
+        evict(TOURS_BY_GUIDE, guideId);
+        evict(TOURS_BY_COUNTRY, countryName);
+        clear(TOUR_PAGES);
+        // Версія зростає вже після очищення кешів, тож нова ETag ніколи не відповідає старим даним
+        if (tourId != null) {
+            tourVersions.put(tourId, nextVersion());
+        }
+    }
+
+    // Зміна гіда чи країни змінює денормалізовані поля (guideName, countryName, countryRegion)
+    // у невідомій кількості турів, тому скидаємо весь каталог
+    public void evictAll() {
+        clear(TOUR_BY_ID);
+        clear(TOUR_PAGES);
+        clear(TOURS_BY_COUNTRY);
+        clear(TOURS_BY_GUIDE);
+        baselineVersion = nextVersion();
+        tourVersions.clear();
+    }
+
+    private long nextVersion() {
+        long now = System.currentTimeMillis();
+        return catalogVersion.accumulateAndGet(now, (previous, current) -> Math.max(previous + 1, current));
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
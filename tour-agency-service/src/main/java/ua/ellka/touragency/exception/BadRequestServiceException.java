@@ -0,0 +1,7 @@
+package ua.ellka.touragency.exception;
+
+public class BadRequestServiceException extends ServiceException {
+    public BadRequestServiceException(String message) {
+        super(message);
+    }
+}
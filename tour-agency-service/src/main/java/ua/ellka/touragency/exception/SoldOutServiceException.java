@@ -0,0 +1,7 @@
+package ua.ellka.touragency.exception;
+
+public class SoldOutServiceException extends ServiceException {
+    public SoldOutServiceException(String message) {
+        super(message);
+    }
+}
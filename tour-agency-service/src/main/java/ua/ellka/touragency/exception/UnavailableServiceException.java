@@ -0,0 +1,7 @@
+package ua.ellka.touragency.exception;
+
+public class UnavailableServiceException extends ServiceException {
+    public UnavailableServiceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package ua.ellka.touragency.executor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.exception.UnavailableServiceException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Окремий обмежений пул для BCrypt: шторм логінів упирається в чергу і отримує 503,
+// а не забирає всі потоки веб-сервера у запитів каталогу
+@Component
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService monitoredPool;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMillis;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${auth.hashing.timeout-millis:5000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.threadPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.monitoredPool = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "password.hashing");
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer timer = meterRegistry.timer("auth.password.hashing", "operation", operation);
+
+        Future<T> future;
+        try {
+            future = monitoredPool.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.password.hashing.rejected", "operation", operation).increment();
+            throw new UnavailableServiceException("Authentication service is busy, please try again later");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceException("Password hashing failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new UnavailableServiceException("Authentication service is busy, please try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceException("Password hashing was interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+}
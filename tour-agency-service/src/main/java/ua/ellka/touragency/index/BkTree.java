@@ -0,0 +1,95 @@
+package ua.ellka.touragency.index;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+// BK-дерево за відстанню Левенштейна: діти вузла згруповані за відстанню до нього, тому пошук
+// з допуском k заходить лише в гілки з відстанню [d - k, d + k] і оминає більшість словника.
+// Видалення не підтримується - власник дерева відфільтровує мертві терми і за потреби будує нове
+final class BkTree {
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return true;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return false;
+            }
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    void search(String query, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null) {
+            return;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(query, node.term);
+            if (distance <= maxDistance) {
+                consumer.accept(node.term, distance);
+            }
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+    }
+
+    // Два рядки таблиці замість повної матриці
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String term;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.model.BookingMonthStat;
+import ua.ellka.touragency.repo.BookingMonthStatRepo;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Статистика бронювань за рік-місяць: таблиця booking_month_stat оновлюється в тій самій транзакції,
+// що й бронювання, а відсортовані лічильники в пам'яті віддають діапазон без звернення до БД
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStatisticsRollup {
+    private final BookingMonthStatRepo bookingMonthStatRepo;
+    private final BookingRepo bookingRepo;
+
+    // Інкременти тримають read lock до кінця своєї транзакції, звірка - write lock,
+    // тож заміна лічильників не губить бронювань, закомічених під час звірки
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile ConcurrentSkipListMap<YearMonth, AtomicLong> counters = new ConcurrentSkipListMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        List<BookingMonthStat> stats = bookingMonthStatRepo.findAllByOrderByPeriodAsc();
+        if (stats.isEmpty() && bookingRepo.count() > 0) {
+            // Перший запуск на існуючих даних - заповнюємо таблицю з історії бронювань
+            rebuild();
+            return;
+        }
+
+        counters = toCounters(stats);
+    }
+
+    public void bookingCreated(LocalDate bookingDate) {
+        change(YearMonth.from(bookingDate), 1);
+    }
+
+    // Пакетний запис: один upsert на місяць замість одного на бронювання
+    public void bookingsCreated(Collection<LocalDate> bookingDates) {
+        bookingDates.stream()
+                .collect(Collectors.groupingBy(YearMonth::from, Collectors.counting()))
+                .forEach(this::change);
+    }
+
+    public void bookingDeleted(LocalDate bookingDate) {
+        change(YearMonth.from(bookingDate), -1);
+    }
+
+    public Map<String, Long> countsBetween(YearMonth from, YearMonth to) {
+        NavigableMap<YearMonth, AtomicLong> range = counters;
+        if (from != null && to != null) {
+            range = range.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = range.tailMap(from, true);
+        } else if (to != null) {
+            range = range.headMap(to, true);
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        range.forEach((period, count) -> {
+            if (count.get() > 0) {
+                result.put(period.toString(), count.get());
+            }
+        });
+        return result;
+    }
+
+    // Backfill і звірка: перераховуємо таблицю з бронювань (за замовчуванням щоночі),
+    // це також виправляє розбіжності після каскадних видалень у БД
+    @Scheduled(cron = "${booking.statistics.rebuild-cron:0 0 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        TransactionUtil.afterCompletion(lock.writeLock()::unlock);
+
+        bookingMonthStatRepo.recountFromBookings();
+        bookingMonthStatRepo.deleteMonthsWithoutBookings();
+        List<BookingMonthStat> stats = bookingMonthStatRepo.findAllByOrderByPeriodAsc();
+
+        ConcurrentSkipListMap<YearMonth, AtomicLong> rebuilt = toCounters(stats);
+        TransactionUtil.afterCommit(() -> counters = rebuilt);
+        log.info("Booking statistics rebuilt for {} months", stats.size());
+    }
+
+    private void change(YearMonth period, long delta) {
+        lock.readLock().lock();
+        TransactionUtil.afterCompletion(lock.readLock()::unlock);
+
+        bookingMonthStatRepo.increment(period.toString(), delta);
+        TransactionUtil.afterCommit(() ->
+                counters.computeIfAbsent(period, key -> new AtomicLong()).addAndGet(delta));
+    }
+
+    private static ConcurrentSkipListMap<YearMonth, AtomicLong> toCounters(List<BookingMonthStat> stats) {
+        ConcurrentSkipListMap<YearMonth, AtomicLong> result = new ConcurrentSkipListMap<>();
+        stats.forEach(stat -> result.put(YearMonth.parse(stat.getPeriod()), new AtomicLong(stat.getBookingCount())));
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.repo.CountryRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Словник країн (назва + регіон -> id) у пам'яті. Промах іде в атомарний upsert у БД,
+// тому паралельне створення туру для нової країни не дає дублікатів і не потребує check-then-insert
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CountryDictionary {
+    public static final String UNKNOWN_REGION = "Unknown Region";
+
+    private final CountryRepo countryRepo;
+    private final FuzzyNameIndex fuzzyNameIndex;
+
+    private final Map<Key, Long> ids = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Country> countries = countryRepo.findAll();
+        countries.forEach(country -> ids.put(new Key(country.getName(), country.getRegion()), country.getId()));
+        log.info("Country dictionary loaded with {} countries", countries.size());
+    }
+
+    // Повертає посилання на країну, створюючи її за потреби
+    public Country resolve(String name, String region) {
+        Key key = Key.of(name, region);
+        Long id = ids.get(key);
+        if (id == null) {
+            id = countryRepo.upsert(key.name(), key.region());
+            remember(key, id);
+        }
+        return countryRepo.getReferenceById(id);
+    }
+
+    // Створює країну лише якщо її ще немає, інакше повертає порожній результат
+    public Optional<Country> create(String name, String region) {
+        Key key = Key.of(name, region);
+        if (ids.containsKey(key)) {
+            return Optional.empty();
+        }
+
+        return countryRepo.insertIfAbsent(key.name(), key.region())
+                .map(id -> {
+                    remember(key, id);
+                    return new Country(id, key.name(), key.region());
+                });
+    }
+
+    public void countryDeleted(Country country) {
+        Key key = new Key(country.getName(), country.getRegion());
+        TransactionUtil.afterCommit(() -> {
+            ids.remove(key, country.getId());
+            fuzzyNameIndex.countryRemoved(country.getId(), country.getName());
+        });
+    }
+
+    // Id потрапляє у словник лише після коміту, щоб відкат не залишив посилання на неіснуючий рядок
+    private void remember(Key key, Long id) {
+        TransactionUtil.afterCommit(() -> {
+            ids.put(key, id);
+            fuzzyNameIndex.countryAdded(id, key.name());
+        });
+    }
+
+    private record Key(String name, String region) {
+        static Key of(String name, String region) {
+            return new Key(name, region != null && !region.isBlank() ? region : UNKNOWN_REGION);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.repo.CountryRepo;
+import ua.ellka.touragency.repo.GuideRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Пошук гідів і країн з помилками в назві. Індексується повна назва і кожне її слово,
+// тож "petrneko" знаходить "Ivan Petrenko". Допустима відстань залежить від довжини запиту
+// і обмежена двома правками, що тримає кількість відвіданих вузлів BK-дерева малою
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FuzzyNameIndex {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final GuideRepo guideRepo;
+    private final CountryRepo countryRepo;
+
+    private final Dictionary guides = new Dictionary();
+    private final Dictionary countries = new Dictionary();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<GuideRepo.GuideNameResult> guideNames = guideRepo.findAllNames();
+        Map<Long, String> countryNames = new HashMap<>();
+        countryRepo.findAll().forEach(country -> countryNames.put(country.getId(), country.getName()));
+
+        synchronized (this) {
+            guides.clear();
+            countries.clear();
+            guideNames.forEach(guide -> guides.add(guide.getId(), guide.getName()));
+            countryNames.forEach(countries::add);
+        }
+        log.info("Fuzzy name index loaded with {} guides and {} countries", guideNames.size(), countryNames.size());
+    }
+
+    // Каскадне видалення гідів разом з користувачами
+    public void reloadAfterCommit() {
+        TransactionUtil.afterCommit(this::load);
+    }
+
+    // Id найближчих за назвою гідів: лише ті, що мають найкращий знайдений збіг
+    public synchronized List<Long> findGuides(String query) {
+        return guides.closest(query);
+    }
+
+    public synchronized List<Long> findCountries(String query) {
+        return countries.closest(query);
+    }
+
+    public void guideSaved(Long guideId, String previousName, String name) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (this) {
+                if (previousName != null) {
+                    guides.remove(guideId, previousName);
+                }
+                guides.add(guideId, name);
+            }
+        });
+    }
+
+    public void guideDeleted(Long guideId, String name) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (this) {
+                guides.remove(guideId, name);
+            }
+        });
+    }
+
+    // Викликається словником країн вже після коміту
+    synchronized void countryAdded(Long countryId, String name) {
+        countries.add(countryId, name);
+    }
+
+    synchronized void countryRemoved(Long countryId, String name) {
+        countries.remove(countryId, name);
+    }
+
+    private static int maxDistance(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    private static Set<String> terms(String name) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = String.join(" ", NON_WORD.split(name.toLowerCase(Locale.ROOT))).strip();
+        if (normalized.isEmpty()) {
+            return terms;
+        }
+
+        terms.add(normalized);
+        for (String word : normalized.split(" ")) {
+            if (word.length() > 2) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Set<Long>> ids = new HashMap<>();
+        private BkTree tree = new BkTree();
+
+        void add(Long id, String name) {
+            for (String term : terms(name)) {
+                ids.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+                tree.add(term);
+            }
+        }
+
+        void remove(Long id, String name) {
+            for (String term : terms(name)) {
+                Set<Long> termIds = ids.get(term);
+                if (termIds != null && termIds.remove(id) && termIds.isEmpty()) {
+                    ids.remove(term);
+                }
+            }
+
+            // Мертві терми лишаються в дереві, доки їх не стане більше за живі
+            if (tree.size() > 2 * ids.size() + 64) {
+                tree = new BkTree();
+                ids.keySet().forEach(tree::add);
+            }
+        }
+
+        void clear() {
+            ids.clear();
+            tree = new BkTree();
+        }
+
+        // Спершу повна назва запиту проти повних назв і окремих слів словника. Якщо вона нічого не знайшла,
+        // кожне слово запиту шукається окремо ("petrneko ivan"): перемагають id, що збіглися з найбільшою
+        // кількістю слів, а серед них - з найменшою сумою відстаней
+        List<Long> closest(String query) {
+            Set<String> queryTerms = terms(query);
+            if (queryTerms.isEmpty()) {
+                return List.of();
+            }
+
+            Iterator<String> iterator = queryTerms.iterator();
+            Map<Long, Score> phrase = scores(iterator.next());
+            if (!phrase.isEmpty() || !iterator.hasNext()) {
+                return best(phrase);
+            }
+
+            Map<Long, Score> scores = new HashMap<>();
+            while (iterator.hasNext()) {
+                scores(iterator.next()).forEach((id, score) -> scores.merge(id, score, Score::plus));
+            }
+            return best(scores);
+        }
+
+        // Найменша відстань від терма до назв кожного id в межах maxDistance
+        private Map<Long, Score> scores(String term) {
+            Map<Long, Score> scores = new HashMap<>();
+            tree.search(term, maxDistance(term), (candidate, distance) -> {
+                Set<Long> termIds = ids.get(candidate);
+                if (termIds != null) {
+                    Score score = new Score(1, distance);
+                    termIds.forEach(id -> scores.merge(id, score, Score::closer));
+                }
+            });
+            return scores;
+        }
+
+        private static List<Long> best(Map<Long, Score> scores) {
+            Score best = scores.values().stream().min(Score.BEST_FIRST).orElse(null);
+            return scores.entrySet().stream()
+                    .filter(entry -> entry.getValue().equals(best))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private record Score(int terms, int distance) {
+        static final Comparator<Score> BEST_FIRST = Comparator
+                .comparingInt(Score::terms).reversed()
+                .thenComparingInt(Score::distance);
+
+        Score plus(Score other) {
+            return new Score(terms + other.terms, distance + other.distance);
+        }
+
+        Score closer(Score other) {
+            return distance <= other.distance ? this : other;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ua.ellka.touragency.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+// Дерево інтервалів на декартовому дереві (treap): вузли впорядковані за (start, id), кожен
+// зберігає максимальний end свого піддерева. Вставка і видалення - O(log n) в середньому,
+// пошук перетину відкидає піддерева з maxEnd < from і праві піддерева з start > to.
+// Не потокобезпечне, синхронізацію забезпечує власник
+final class IntervalTree {
+    private final SplittableRandom random = new SplittableRandom();
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private Node root;
+
+    int size() {
+        return nodes.size();
+    }
+
+    void put(long id, long start, long end) {
+        remove(id);
+        Node node = new Node(id, start, end, random.nextInt());
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    void remove(long id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node.start, id);
+        }
+    }
+
+    // Усі інтервали [start, end], що перетинаються з [from, to], у порядку зростання start
+    void findOverlapping(long from, long to, LongConsumer consumer) {
+        find(root, from, to, consumer);
+    }
+
+    // Сторінка з limit найменших id після afterId: купа тримає лише limit кандидатів,
+    // тож глибока сторінка коштує O(k log limit), а не сортування всіх k перетинів
+    List<Long> findOverlapping(long from, long to, long afterId, int limit) {
+        PriorityQueue<Long> heap = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        find(root, from, to, id -> {
+            if (id > afterId && (heap.size() < limit || id < heap.peek())) {
+                heap.add(id);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        });
+
+        List<Long> ids = new ArrayList<>(heap);
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static void find(Node node, long from, long to, LongConsumer consumer) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+
+        find(node.left, from, to, consumer);
+        if (node.start > to) {
+            // Праве піддерево починається ще пізніше
+            return;
+        }
+        if (node.end >= from) {
+            consumer.accept(node.id);
+        }
+        find(node.right, from, to, consumer);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+
+        if (compare(inserted.start, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            node = merge(node.left, node.right);
+        }
+
+        if (node != null) {
+            update(node);
+        }
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        return right;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(id, node.id);
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long start;
+        private final long end;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long id, long start, long end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ua.ellka.touragency.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+// Зміни індексу, що надходять, поки перебудова читає знімок з БД без блокування: знімок міг їх не побачити,
+// тому після підміни структури вони застосовуються ще раз. Зміни мають бути ідемпотентними (put/remove)
+// або терпіти подвійний облік того, що знімок уже побачив (дельти лічильників)
+final class RebuildJournal {
+    private final Lock writeLock;
+    private final List<Runnable> changes = new ArrayList<>();
+    private int rebuilds;
+
+    RebuildJournal(Lock writeLock) {
+        this.writeLock = writeLock;
+    }
+
+    void begin() {
+        writeLock.lock();
+        try {
+            rebuilds++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void end() {
+        writeLock.lock();
+        try {
+            if (--rebuilds == 0) {
+                changes.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Викликається під write lock, одразу після застосування зміни
+    void record(Runnable change) {
+        if (rebuilds > 0) {
+            changes.add(change);
+        }
+    }
+
+    // Викликається під write lock, одразу після підміни структури
+    void replay() {
+        changes.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,60 @@
+package ua.ellka.touragency.index;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Залишок місць одного туру, розкладений по кількох комірках на окремих кеш-лініях:
+// паралельні бронювання роблять CAS по різних комірках замість однієї спільної
+final class StripedSeatCounter {
+    static final StripedSeatCounter UNLIMITED = new StripedSeatCounter(0, true);
+
+    private static final int MAX_STRIPES = 16;
+    // 16 int = 64 байти, сусідні комірки не ділять одну кеш-лінію
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+    private final boolean unlimited;
+
+    StripedSeatCounter(int seats) {
+        this(Math.max(seats, 0), false);
+    }
+
+    private StripedSeatCounter(int seats, boolean unlimited) {
+        this.unlimited = unlimited;
+        this.stripes = Math.max(1, Math.min(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()), seats));
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, seats / stripes + (i < seats % stripes ? 1 : 0));
+        }
+    }
+
+    // Починаємо зі "своєї" комірки потоку, а якщо вона порожня - обходимо решту,
+    // тому відмова означає, що вільних місць немає в жодній комірці
+    boolean tryAcquire() {
+        if (unlimited) {
+            return true;
+        }
+
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) % stripes) * PADDING;
+            int seats;
+            while ((seats = cells.get(index)) > 0) {
+                if (cells.compareAndSet(index, seats, seats - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void release() {
+        if (!unlimited) {
+            cells.incrementAndGet(home() * PADDING);
+        }
+    }
+
+    private int home() {
+        return Math.floorMod(System.identityHashCode(Thread.currentThread()), stripes);
+    }
+}
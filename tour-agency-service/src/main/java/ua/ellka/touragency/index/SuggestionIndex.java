@@ -0,0 +1,333 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.dto.SuggestionDTO;
+import ua.ellka.touragency.dto.SuggestionType;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Автодоповнення назв турів, країн і гідів. Незмінний знімок: відсортований масив ключів
+// (назва з кожного її слова) і бінарний пошук діапазону префікса. Для префіксів з 1-2 символів,
+// де діапазон найширший, top-N пораховано заздалегідь. Вага - кількість бронювань (для країни
+// і гіда - сума по їхніх турах). Назви турів тримаються в пам'яті і змінюються потурово,
+// знімок з них перебудовується у фоні без звернення до БД
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+    public static final int MAX_LIMIT = 10;
+    private static final int SHORT_PREFIX_LENGTH = 2;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator
+            .comparingLong(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::name)
+            .thenComparing(Suggestion::type);
+
+    private final TourRepo tourRepo;
+    private final TourPopularityIndex tourPopularityIndex;
+
+    // Зміна рейтингу бронювань сама по собі перебудовує знімок не частіше за цей інтервал
+    @Value("${suggest.popularity-refresh:PT1M}")
+    private Duration popularityRefresh;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildJournal journal = new RebuildJournal(lock.writeLock());
+    private Map<Long, TourNames> tours = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Знімок відстає від назв у пам'яті
+    private volatile boolean dirty = true;
+    // Назви в пам'яті відстають від БД (каскадні зміни гідів і країн)
+    private volatile boolean reloadNeeded;
+    private long builtPopularityVersion = -1;
+    private long builtAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        reload();
+        build();
+    }
+
+    @Scheduled(fixedDelayString = "${suggest.refresh-interval:PT5S}")
+    public synchronized void refresh() {
+        if (reloadNeeded) {
+            reload();
+        }
+        boolean popularityChanged = tourPopularityIndex.getVersion() != builtPopularityVersion
+                && System.currentTimeMillis() - builtAt >= popularityRefresh.toMillis();
+        if (dirty || popularityChanged) {
+            build();
+        }
+    }
+
+    // Назви читаються одразу (поки доступні лінива країна і гід), а застосовуються лише після коміту
+    public void tourSaved(Tour tour) {
+        Long tourId = tour.getId();
+        TourNames names = new TourNames(tour.getName(), tour.getCountry().getName(), tour.getGuide().getName());
+        TransactionUtil.afterCommit(() -> apply(() -> tours.put(tourId, names)));
+    }
+
+    public void tourDeleted(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> tours.remove(tourId)));
+    }
+
+    // Перейменування чи видалення гіда або країни змінює назви невідомої кількості турів:
+    // після коміту назви перечитуються з БД у фоні
+    public void reloadAfterCommit() {
+        TransactionUtil.afterCommit(() -> reloadNeeded = true);
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        List<Suggestion> suggestions = key.length() <= SHORT_PREFIX_LENGTH
+                ? current.shortPrefixTop().getOrDefault(key, List.of())
+                : current.top(key, limit);
+
+        return suggestions.stream()
+                .limit(limit)
+                .map(suggestion -> new SuggestionDTO(suggestion.type(), suggestion.name()))
+                .toList();
+    }
+
+    private void reload() {
+        // Скидається до читання, тому каскад під час перечитування запустить ще одне
+        reloadNeeded = false;
+        journal.begin();
+        try {
+            Map<Long, TourNames> newTours = new HashMap<>();
+            tourRepo.findTourSearchFields().forEach(tour -> newTours.put(tour.getId(),
+                    new TourNames(tour.getName(), tour.getCountryName(), tour.getGuideName())));
+
+            lock.writeLock().lock();
+            try {
+                tours = newTours;
+                journal.replay();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            dirty = true;
+        } finally {
+            journal.end();
+        }
+    }
+
+    private void build() {
+        // Скидається до читання, тому зміна під час побудови запустить ще одну
+        dirty = false;
+        long popularityVersion = tourPopularityIndex.getVersion();
+        Map<Long, Long> bookingCounts = tourPopularityIndex.bookingCounts();
+
+        Map<Name, Long> weights = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            tours.forEach((tourId, names) -> {
+                long bookings = bookingCounts.getOrDefault(tourId, 0L);
+                weights.merge(new Name(SuggestionType.TOUR, names.name()), bookings, Long::sum);
+                // +1 за тур: без бронювань вище стоять країни і гіди з більшою кількістю турів
+                weights.merge(new Name(SuggestionType.COUNTRY, names.countryName()), bookings + 1, Long::sum);
+                weights.merge(new Name(SuggestionType.GUIDE, names.guideName()), bookings + 1, Long::sum);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        snapshot = Snapshot.build(weights);
+        builtPopularityVersion = popularityVersion;
+        builtAt = System.currentTimeMillis();
+        log.debug("Suggestion index built with {} names", weights.size());
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            journal.record(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty = true;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : String.join(" ", NON_WORD.split(text.toLowerCase(Locale.ROOT))).strip();
+    }
+
+    private record TourNames(String name, String countryName, String guideName) {
+    }
+
+    private record Name(SuggestionType type, String name) {
+    }
+
+    private record Suggestion(SuggestionType type, String name, long weight) {
+    }
+
+    // Ключ - нормалізована назва, починаючи з кожного слова ("Kyiv Old Town" шукається і за "old"),
+    // упакований у long: id підказки у старших 32 бітах, зсув слова - у молодших.
+    // Порівняння йдуть по символах names[id] від зсуву, без окремого рядка на кожен ключ
+    private record Snapshot(String[] names, long[] keys, Suggestion[] suggestions,
+                            Map<String, List<Suggestion>> shortPrefixTop) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new Suggestion[0], Map.of());
+
+        static Snapshot build(Map<Name, Long> weights) {
+            Suggestion[] suggestions = weights.entrySet().stream()
+                    .map(entry -> new Suggestion(entry.getKey().type(), entry.getKey().name(), entry.getValue()))
+                    .sorted(BY_WEIGHT)
+                    .toArray(Suggestion[]::new);
+
+            String[] names = new String[suggestions.length];
+            int keyCount = 0;
+            for (int id = 0; id < suggestions.length; id++) {
+                names[id] = normalize(suggestions[id].name());
+                keyCount += words(names[id]);
+            }
+
+            long[] keys = new long[keyCount];
+            Set<String> shortPrefixes = new HashSet<>();
+            int next = 0;
+            for (int id = 0; id < names.length; id++) {
+                String name = names[id];
+                int start = 0;
+                while (start < name.length()) {
+                    keys[next++] = (long) id << 32 | start;
+                    shortPrefixes.add(name.substring(start, start + 1));
+                    if (start + 1 < name.length()) {
+                        shortPrefixes.add(name.substring(start, start + SHORT_PREFIX_LENGTH));
+                    }
+
+                    int space = name.indexOf(' ', start);
+                    start = space < 0 ? name.length() : space + 1;
+                }
+            }
+            sort(keys, new long[keys.length], 0, keys.length, names);
+
+            Snapshot snapshot = new Snapshot(names, keys, suggestions, new HashMap<>());
+            shortPrefixes.forEach(prefix -> snapshot.shortPrefixTop().put(prefix, snapshot.top(prefix, MAX_LIMIT)));
+            return snapshot;
+        }
+
+        List<Suggestion> top(String prefix, int limit) {
+            int from = bound(prefix, false);
+            int to = bound(prefix, true);
+
+            // Менший id означає більшу вагу, тож у купі тримаємо limit найменших id діапазону
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+            Set<Integer> seen = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                int id = (int) (keys[i] >>> 32);
+                if (seen.add(id)) {
+                    heap.add(id);
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+
+            Integer[] ids = heap.toArray(new Integer[0]);
+            Arrays.sort(ids);
+            return Arrays.stream(ids).map(id -> suggestions[id]).toList();
+        }
+
+        // Перший ключ, що не менший за префікс (afterMatches = false) або вже більший за всі ключі з ним
+        private int bound(String prefix, boolean afterMatches) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int compare = comparePrefix(keys[middle], prefix);
+                if (compare < 0 || compare == 0 && afterMatches) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // 0, якщо ключ починається з префікса
+        private int comparePrefix(long key, String prefix) {
+            String name = names[(int) (key >>> 32)];
+            int offset = (int) key;
+            int length = Math.min(name.length() - offset, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int compare = name.charAt(offset + i) - prefix.charAt(i);
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return name.length() - offset >= prefix.length() ? 0 : -1;
+        }
+
+        private static int words(String name) {
+            int count = name.isEmpty() ? 0 : 1;
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) == ' ') {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static int compareKeys(long left, long right, String[] names) {
+            String leftName = names[(int) (left >>> 32)];
+            String rightName = names[(int) (right >>> 32)];
+            int leftOffset = (int) left;
+            int rightOffset = (int) right;
+            int length = Math.min(leftName.length() - leftOffset, rightName.length() - rightOffset);
+            for (int i = 0; i < length; i++) {
+                int compare = leftName.charAt(leftOffset + i) - rightName.charAt(rightOffset + i);
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return (leftName.length() - leftOffset) - (rightName.length() - rightOffset);
+        }
+
+        // Сортування злиттям по ключах на місці масиву long, без упаковки в об'єкти
+        private static void sort(long[] keys, long[] buffer, int from, int to, String[] names) {
+            if (to - from < 2) {
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            sort(keys, buffer, from, middle, names);
+            sort(keys, buffer, middle, to, names);
+            System.arraycopy(keys, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || left < middle && compareKeys(buffer[left], buffer[right], names) <= 0) {
+                    keys[i] = buffer[left++];
+                } else {
+                    keys[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Періоди турів у дереві інтервалів: "тури, що йдуть між датами A і B" - це перетин інтервалів,
+// який у БД не обслуговує жоден B-tree індекс. Тури без дати початку чи кінця не індексуються
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TourDateIndex {
+    private final TourRepo tourRepo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildJournal journal = new RebuildJournal(lock.writeLock());
+    private IntervalTree tree = new IntervalTree();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        journal.begin();
+        try {
+            List<TourRepo.TourDateRangeResult> ranges = tourRepo.findTourDateRanges();
+
+            IntervalTree newTree = new IntervalTree();
+            ranges.forEach(range -> newTree.put(range.getId(),
+                    range.getStartDate().toEpochDay(), range.getEndDate().toEpochDay()));
+
+            lock.writeLock().lock();
+            try {
+                tree = newTree;
+                ready = true;
+                journal.replay();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Tour date index built for {} tours", newTree.size());
+        } finally {
+            journal.end();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Каскадні видалення гідів і країн прибирають тури в обхід сервісу
+    public void rebuildAfterCommit() {
+        TransactionUtil.afterCommit(this::rebuild);
+    }
+
+    public void tourSaved(Tour tour) {
+        Long tourId = tour.getId();
+        LocalDate startDate = tour.getStartDate();
+        LocalDate endDate = tour.getEndDate();
+        TransactionUtil.afterCommit(() -> apply(() -> {
+            if (startDate == null || endDate == null) {
+                tree.remove(tourId);
+            } else {
+                tree.put(tourId, startDate.toEpochDay(), endDate.toEpochDay());
+            }
+        }));
+    }
+
+    public void tourDeleted(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> tree.remove(tourId)));
+    }
+
+    // До limit найменших id турів після afterId, період яких перетинається з [from, to] (межі включно)
+    public List<Long> findOverlapping(LocalDate from, LocalDate to, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return tree.findOverlapping(from.toEpochDay(), to.toEpochDay(), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            journal.record(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
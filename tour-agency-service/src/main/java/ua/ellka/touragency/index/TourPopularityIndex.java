@@ -0,0 +1,165 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Кількість бронювань по турах у пам'яті: TreeSet тримає тури відсортованими за популярністю,
+// тому top-K читається за O(K), а кожне бронювання оновлює індекс за O(log n)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TourPopularityIndex {
+    private static final Comparator<Entry> BY_POPULARITY = Comparator
+            .comparingLong(Entry::count).reversed()
+            .thenComparingLong(Entry::tourId);
+
+    private final BookingRepo bookingRepo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Дельти не ідемпотентні: бронювання, закомічене між запуском агрегату і його знімком,
+    // після повтору врахується двічі. Це вікно значно вужче за втрату всіх змін під час перебудови
+    private final RebuildJournal journal = new RebuildJournal(lock.writeLock());
+    private Map<Long, Entry> entries = new HashMap<>();
+    private TreeSet<Entry> ranking = new TreeSet<>(BY_POPULARITY);
+    private volatile boolean ready;
+    // Зростає з кожною зміною рейтингу, входить в ETag списку популярних турів
+    private volatile long version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        journal.begin();
+        try {
+            List<BookingRepo.TourBookingCountResult> counts = bookingRepo.findBookingCountsByTour();
+
+            Map<Long, Entry> newEntries = new HashMap<>(counts.size());
+            TreeSet<Entry> newRanking = new TreeSet<>(BY_POPULARITY);
+            counts.forEach(result -> {
+                Entry entry = new Entry(result.getTourId(), result.getBookingCount());
+                newEntries.put(entry.tourId(), entry);
+                newRanking.add(entry);
+            });
+
+            lock.writeLock().lock();
+            try {
+                entries = newEntries;
+                ranking = newRanking;
+                journal.replay();
+                ready = true;
+                version++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Tour popularity index built for {} tours", counts.size());
+        } finally {
+            journal.end();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Знімок лічильників для побудови інших індексів
+    public Map<Long, Long> bookingCounts() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> counts = new HashMap<>(entries.size());
+            entries.forEach((tourId, entry) -> counts.put(tourId, entry.count()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> topTourIds(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> tourIds = new ArrayList<>(limit);
+            Iterator<Entry> iterator = ranking.iterator();
+            while (iterator.hasNext() && tourIds.size() < limit) {
+                tourIds.add(iterator.next().tourId());
+            }
+            return tourIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void bookingCreated(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> change(tourId, 1)));
+    }
+
+    public void bookingsCreated(Long tourId, long count) {
+        TransactionUtil.afterCommit(() -> apply(() -> change(tourId, count)));
+    }
+
+    public void bookingDeleted(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> change(tourId, -1)));
+    }
+
+    public void tourDeleted(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> remove(tourId)));
+    }
+
+    // Каскадні видалення в БД (клієнт, гід, країна) прибирають бронювання в обхід сервісу,
+    // тому після них індекс перебудовується з агрегату
+    public void rebuildAfterCommit() {
+        TransactionUtil.afterCommit(this::rebuild);
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            journal.record(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void change(Long tourId, long delta) {
+        Entry current = remove(tourId);
+        long count = (current == null ? 0 : current.count()) + delta;
+        if (count > 0) {
+            put(tourId, count);
+        }
+        version++;
+    }
+
+    private Entry remove(Long tourId) {
+        Entry current = entries.remove(tourId);
+        if (current != null) {
+            ranking.remove(current);
+            version++;
+        }
+        return current;
+    }
+
+    private void put(Long tourId, long count) {
+        Entry entry = new Entry(tourId, count);
+        entries.put(tourId, entry);
+        ranking.add(entry);
+    }
+
+    private record Entry(long tourId, long count) {
+    }
+}
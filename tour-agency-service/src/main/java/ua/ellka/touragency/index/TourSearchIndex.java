@@ -0,0 +1,271 @@
+package ua.ellka.touragency.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Інвертований індекс турів у пам'яті: терм -> (id туру -> зважена частота).
+// Терми лежать у TreeMap, тому префікс - це діапазон subMap(prefix, prefix + MAX_VALUE) без перебору словника.
+// Ранжування BM25, поля мають різну вагу (назва туру важить більше за мову гіда).
+// Кожне слово запиту має збігтися (AND), останнє дописане слово працює як префікс
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TourSearchIndex {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int COUNTRY_WEIGHT = 2;
+    private static final int GUIDE_NAME_WEIGHT = 2;
+    private static final int REGION_WEIGHT = 1;
+    private static final int LANGUAGE_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Збіг лише за префіксом важить менше за точний терм, а кількість розгортань обмежена
+    private static final double PREFIX_WEIGHT = 0.6;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final Comparator<ScoredTour> BY_SCORE = Comparator
+            .comparingDouble(ScoredTour::score)
+            .thenComparing(Comparator.comparingLong(ScoredTour::tourId).reversed());
+
+    private final TourRepo tourRepo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildJournal journal = new RebuildJournal(lock.writeLock());
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        journal.begin();
+        try {
+            List<TourRepo.TourSearchFieldsResult> tours = tourRepo.findTourSearchFields();
+
+            // Новий індекс будується без блокування і підміняється цілком
+            NavigableMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+            Map<Long, Document> newDocuments = new HashMap<>();
+            long newTotalLength = 0;
+            for (TourRepo.TourSearchFieldsResult tour : tours) {
+                Document document = Document.of(tour.getName(), tour.getCountryName(), tour.getCountryRegion(),
+                        tour.getGuideName(), tour.getGuideLanguage());
+                newDocuments.put(tour.getId(), document);
+                newTotalLength += document.length();
+                addPostings(newPostings, tour.getId(), document);
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+                journal.replay();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Tour search index built for {} tours, {} terms", tours.size(), newPostings.size());
+        } finally {
+            journal.end();
+        }
+    }
+
+    // Перейменування гіда чи видалення країни змінює поля невідомої кількості турів
+    public void rebuildAfterCommit() {
+        TransactionUtil.afterCommit(this::rebuild);
+    }
+
+    // Поля читаються одразу (поки доступні лінива країна і гід), а індекс змінюється лише після коміту
+    public void tourSaved(Tour tour) {
+        Long tourId = tour.getId();
+        Document document = Document.of(tour.getName(), tour.getCountry().getName(), tour.getCountry().getRegion(),
+                tour.getGuide().getName(), tour.getGuide().getLanguage());
+        TransactionUtil.afterCommit(() -> apply(() -> put(tourId, document)));
+    }
+
+    public void tourDeleted(Long tourId) {
+        TransactionUtil.afterCommit(() -> apply(() -> remove(tourId)));
+    }
+
+    // Id турів за спаданням релевантності
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = i == tokens.size() - 1;
+                Map<Long, Double> tokenScores = scoreToken(tokens.get(i), prefix, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((tourId, score) -> score + tokenScores.get(tourId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, boolean prefix, double averageLength) {
+        Map<String, Map<Long, Integer>> terms = prefix
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, true)
+                : postings.containsKey(token) ? Map.of(token, postings.get(token)) : Map.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> term : terms.entrySet()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            Map<Long, Integer> frequencies = term.getValue();
+            double weight = term.getKey().length() == token.length() ? 1.0 : PREFIX_WEIGHT;
+            double idf = Math.log(1 + (documents.size() - frequencies.size() + 0.5) / (frequencies.size() + 0.5));
+            for (Map.Entry<Long, Integer> frequency : frequencies.entrySet()) {
+                double tf = frequency.getValue();
+                double length = documents.get(frequency.getKey()).length();
+                double score = weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                // Кілька розгортань одного префікса не сумуються, рахується найкраще
+                scores.merge(frequency.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, int limit) {
+        PriorityQueue<ScoredTour> heap = new PriorityQueue<>(limit + 1, BY_SCORE);
+        scores.forEach((tourId, score) -> {
+            heap.add(new ScoredTour(tourId, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+
+        List<Long> tourIds = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            tourIds.add(heap.poll().tourId());
+        }
+        Collections.reverse(tourIds);
+        return tourIds;
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            journal.record(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long tourId, Document document) {
+        remove(tourId);
+        documents.put(tourId, document);
+        totalLength += document.length();
+        addPostings(postings, tourId, document);
+    }
+
+    private void remove(Long tourId) {
+        Document document = documents.remove(tourId);
+        if (document == null) {
+            return;
+        }
+
+        totalLength -= document.length();
+        document.frequencies().keySet().forEach(term -> {
+            Map<Long, Integer> frequencies = postings.get(term);
+            if (frequencies != null) {
+                frequencies.remove(tourId);
+                if (frequencies.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private static void addPostings(NavigableMap<String, Map<Long, Integer>> postings, Long tourId, Document document) {
+        document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(tourId, frequency));
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(Map<String, Integer> frequencies, int length) {
+        static Document of(String name, String countryName, String countryRegion, String guideName, String guideLanguage) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            add(frequencies, name, NAME_WEIGHT);
+            add(frequencies, countryName, COUNTRY_WEIGHT);
+            add(frequencies, countryRegion, REGION_WEIGHT);
+            add(frequencies, guideName, GUIDE_NAME_WEIGHT);
+            add(frequencies, guideLanguage, LANGUAGE_WEIGHT);
+
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            return new Document(frequencies, length);
+        }
+
+        private static void add(Map<String, Integer> frequencies, String text, int weight) {
+            if (text == null) {
+                return;
+            }
+            for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    frequencies.merge(token, weight, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private record ScoredTour(long tourId, double score) {
+    }
+}
@@ -0,0 +1,60 @@
+package ua.ellka.touragency.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.time.Duration;
+
+// Фронт перед умовним UPDATE у БД: коли тур розпродано, запити відхиляються в пам'яті
+// і не стають у чергу на блокування рядка туру. Джерелом правди лишається БД -
+// лічильник лише відсікає зайві спроби і періодично перечитується, щоб підхопити зміни з інших інстансів
+@Component
+@RequiredArgsConstructor
+public class TourSeatCounters {
+    private static final int MAX_TOURS = 10_000;
+    private static final Duration RELOAD_AFTER = Duration.ofSeconds(30);
+
+    private final TourRepo tourRepo;
+
+    private final Cache<Long, StripedSeatCounter> counters = Caffeine.newBuilder()
+            .maximumSize(MAX_TOURS)
+            .expireAfterWrite(RELOAD_AFTER)
+            .build();
+
+    // Місце займається одразу, а при відкаті транзакції повертається назад
+    public boolean acquire(Long tourId) {
+        StripedSeatCounter counter = counters.get(tourId, this::load);
+        if (!counter.tryAcquire()) {
+            return false;
+        }
+
+        TransactionUtil.afterRollback(() -> release(tourId));
+        return true;
+    }
+
+    public void released(Long tourId) {
+        TransactionUtil.afterCommit(() -> release(tourId));
+    }
+
+    // БД не підтвердила місце або місткість змінилась - наступний запит перечитає залишок
+    public void invalidate(Long tourId) {
+        counters.invalidate(tourId);
+    }
+
+    private void release(Long tourId) {
+        StripedSeatCounter counter = counters.getIfPresent(tourId);
+        if (counter != null) {
+            counter.release();
+        }
+    }
+
+    private StripedSeatCounter load(Long tourId) {
+        return tourRepo.findAvailableSeatsById(tourId)
+                .map(StripedSeatCounter::new)
+                .orElse(StripedSeatCounter.UNLIMITED);
+    }
+}
@@ -0,0 +1,327 @@
+package ua.ellka.touragency.ingestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+import ua.ellka.touragency.dto.BookingIngestionStatus;
+import ua.ellka.touragency.exception.UnavailableServiceException;
+import ua.ellka.touragency.index.BookingStatisticsRollup;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.TourSeatCounters;
+import ua.ellka.touragency.model.Booking;
+import ua.ellka.touragency.model.Client;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.repo.ClientRepo;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.reservation.SeatReservations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Write-behind режим бронювання для розпродажів: запит лише займає місце в лічильнику пам'яті
+// і стає в обмежену чергу, а один потік записує накопичені бронювання пакетами в одній транзакції -
+// набір SELECT на весь пакет, списання місць по турах і пакетні INSERT з id з пулу послідовності.
+// Прийняті, але ще не записані бронювання живуть лише в пам'яті, тому клієнт перевіряє статус квитка
+@Slf4j
+@Component
+public class BookingWriteBehindQueue {
+    private static final Duration TICKET_TTL = Duration.ofHours(1);
+    private static final int MAX_TICKETS = 100_000;
+
+    private final ClientRepo clientRepo;
+    private final TourRepo tourRepo;
+    private final BookingRepo bookingRepo;
+    private final SeatReservations seatReservations;
+    private final TourSeatCounters tourSeatCounters;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final BookingStatisticsRollup bookingStatisticsRollup;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<PendingBooking> queue;
+    private final Cache<String, Ticket> tickets = Caffeine.newBuilder()
+            .maximumSize(MAX_TICKETS)
+            .expireAfterWrite(TICKET_TTL)
+            .build();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public BookingWriteBehindQueue(ClientRepo clientRepo,
+                                   TourRepo tourRepo,
+                                   BookingRepo bookingRepo,
+                                   SeatReservations seatReservations,
+                                   TourSeatCounters tourSeatCounters,
+                                   TourPopularityIndex tourPopularityIndex,
+                                   BookingStatisticsRollup bookingStatisticsRollup,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${booking.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${booking.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${booking.write-behind.batch-size:200}") int batchSize,
+                                   @Value("${booking.write-behind.linger-millis:20}") long lingerMillis) {
+        this.clientRepo = clientRepo;
+        this.tourRepo = tourRepo;
+        this.bookingRepo = bookingRepo;
+        this.seatReservations = seatReservations;
+        this.tourSeatCounters = tourSeatCounters;
+        this.tourPopularityIndex = tourPopularityIndex;
+        this.bookingStatisticsRollup = bookingStatisticsRollup;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("booking.write_behind.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::run, "booking-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Під час зупинки дописуємо все, що вже прийнято
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        drain();
+    }
+
+    // Синхронно записує все, що лишилось у черзі
+    void drain() {
+        List<PendingBooking> batch = new ArrayList<>();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BookingIngestionDTO enqueue(Long userId, Long tourId, LocalDate bookingDate) {
+        String ticketId = UUID.randomUUID().toString();
+        BookingIngestionDTO accepted = new BookingIngestionDTO(ticketId, BookingIngestionStatus.ACCEPTED, null, null);
+        tickets.put(ticketId, new Ticket(userId, accepted));
+
+        if (!queue.offer(new PendingBooking(ticketId, userId, tourId, bookingDate))) {
+            tickets.invalidate(ticketId);
+            meterRegistry.counter("booking.write_behind", "result", "overflow").increment();
+            throw new UnavailableServiceException("Booking queue is full, please try again later");
+        }
+
+        meterRegistry.counter("booking.write_behind", "result", "accepted").increment();
+        return accepted;
+    }
+
+    // Результат, отриманий поза чергою (синхронне бронювання), теж доступний за квитком
+    public void record(Long userId, BookingIngestionDTO status) {
+        tickets.put(status.getTicketId(), new Ticket(userId, status));
+    }
+
+    // Чужий квиток відповідає так само, як відсутній
+    public Optional<BookingIngestionDTO> status(String ticketId, Long userId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId))
+                .filter(ticket -> ticket.userId().equals(userId))
+                .map(Ticket::status);
+    }
+
+    private void run() {
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingBooking first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                // Чекаємо до linger-millis, поки назбирається пакет
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingBooking next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingBooking> batch) {
+        // Тури, чий лічильник скинуто під час запису: відхилені бронювання вже не займають у ньому місць
+        Set<Long> recountedTourIds = new HashSet<>();
+        Map<PendingBooking, BookingIngestionDTO> outcomes;
+        try {
+            outcomes = meterRegistry.timer("booking.write_behind.flush").record(() ->
+                    transactionTemplate.execute(status -> write(batch, recountedTourIds)));
+        } catch (DataIntegrityViolationException e) {
+            // Паралельне синхронне бронювання зайняло той самий ключ між перевіркою і комітом.
+            // Пакет відкотився цілком, тому переписуємо його поштучно - відхилено буде лише дублікат
+            log.warn("Batch of {} queued bookings hit a unique constraint, writing them one by one", batch.size());
+            outcomes = new LinkedHashMap<>();
+            for (PendingBooking pending : batch) {
+                outcomes.putAll(writeOne(pending, recountedTourIds));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} queued bookings", batch.size(), e);
+            outcomes = batch.stream().collect(Collectors.toMap(Function.identity(), pending ->
+                    rejected(pending, "Booking could not be saved, please try again")));
+        }
+
+        outcomes.forEach((pending, outcome) -> {
+            if (outcome.getStatus() == BookingIngestionStatus.REJECTED
+                    && !recountedTourIds.contains(pending.tourId())) {
+                tourSeatCounters.released(pending.tourId());
+            }
+            tickets.put(pending.ticketId(), new Ticket(pending.userId(), outcome));
+            meterRegistry.counter("booking.write_behind", "result", outcome.getStatus().name().toLowerCase())
+                    .increment();
+        });
+        // Лічильник скинуто ще до коміту, тож паралельний запит міг перечитати залишок без списань пакета
+        recountedTourIds.forEach(tourSeatCounters::invalidate);
+    }
+
+    private Map<PendingBooking, BookingIngestionDTO> writeOne(PendingBooking pending, Set<Long> recountedTourIds) {
+        try {
+            return transactionTemplate.execute(status -> write(List.of(pending), recountedTourIds));
+        } catch (DataIntegrityViolationException e) {
+            return Map.of(pending, rejected(pending, "Booking already exists"));
+        } catch (RuntimeException e) {
+            log.error("Failed to write queued booking {}", pending.ticketId(), e);
+            return Map.of(pending, rejected(pending, "Booking could not be saved, please try again"));
+        }
+    }
+
+    // Одна транзакція на пакет: перевірки набором запитів, списання місць по турах, пакетні INSERT
+    private Map<PendingBooking, BookingIngestionDTO> write(List<PendingBooking> batch, Set<Long> recountedTourIds) {
+        Map<PendingBooking, BookingIngestionDTO> outcomes = new LinkedHashMap<>();
+
+        Map<Long, Client> clientsByUserId = clientRepo.findByUserIdIn(
+                        batch.stream().map(PendingBooking::userId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(client -> client.getUser().getId(), Function.identity()));
+        Set<Long> existingTourIds = new HashSet<>(tourRepo.findExistingIds(
+                batch.stream().map(PendingBooking::tourId).collect(Collectors.toSet())));
+
+        Set<BookingKey> bookedKeys = new HashSet<>();
+        if (!clientsByUserId.isEmpty() && !existingTourIds.isEmpty()) {
+            List<Long> clientIds = clientsByUserId.values().stream().map(Client::getId).toList();
+            bookingRepo.findBookingKeys(existingTourIds, clientIds).forEach(result -> bookedKeys.add(
+                    new BookingKey(result.getTourId(), result.getClientId(), result.getBookingDate())));
+        }
+
+        Map<Long, List<PendingBooking>> validByTour = new HashMap<>();
+        for (PendingBooking pending : batch) {
+            Client client = clientsByUserId.get(pending.userId());
+            if (client == null) {
+                outcomes.put(pending, rejected(pending, "Client profile not found."));
+            } else if (!existingTourIds.contains(pending.tourId())) {
+                outcomes.put(pending, rejected(pending, "Tour not found with ID: " + pending.tourId()));
+            } else if (!bookedKeys.add(new BookingKey(pending.tourId(), client.getId(), pending.bookingDate()))) {
+                outcomes.put(pending, rejected(pending, "Booking already exists"));
+            } else {
+                validByTour.computeIfAbsent(pending.tourId(), key -> new ArrayList<>()).add(pending);
+            }
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        Map<Booking, PendingBooking> pendingByBooking = new HashMap<>();
+        validByTour.forEach((tourId, pendings) -> {
+            int granted = seatReservations.reserve(tourId, pendings.size());
+            if (granted < pendings.size()) {
+                recountedTourIds.add(tourId);
+            }
+            for (int i = 0; i < pendings.size(); i++) {
+                PendingBooking pending = pendings.get(i);
+                if (i >= granted) {
+                    outcomes.put(pending, rejected(pending, "No seats available for tour with ID: " + tourId));
+                    continue;
+                }
+
+                Booking booking = new Booking();
+                booking.setTour(tourRepo.getReferenceById(tourId));
+                booking.setClient(clientsByUserId.get(pending.userId()));
+                booking.setBookingDate(pending.bookingDate());
+                bookings.add(booking);
+                pendingByBooking.put(booking, pending);
+            }
+            if (granted > 0) {
+                tourPopularityIndex.bookingsCreated(tourId, Math.min(granted, pendings.size()));
+            }
+        });
+
+        bookingRepo.saveAll(bookings);
+        bookingStatisticsRollup.bookingsCreated(bookings.stream().map(Booking::getBookingDate).toList());
+
+        pendingByBooking.forEach((booking, pending) -> outcomes.put(pending, new BookingIngestionDTO(
+                pending.ticketId(), BookingIngestionStatus.CONFIRMED, booking.getId(), null)));
+        return outcomes;
+    }
+
+    private BookingIngestionDTO rejected(PendingBooking pending, String message) {
+        return new BookingIngestionDTO(pending.ticketId(), BookingIngestionStatus.REJECTED, null, message);
+    }
+
+    private record PendingBooking(String ticketId, Long userId, Long tourId, LocalDate bookingDate) {
+    }
+
+    private record BookingKey(Long tourId, Long clientId, LocalDate bookingDate) {
+    }
+
+    private record Ticket(Long userId, BookingIngestionDTO status) {
+    }
+}
@@ -0,0 +1,16 @@
+package ua.ellka.touragency.reservation;
+
+import ua.ellka.touragency.model.SeatHold;
+
+import java.time.Instant;
+
+public record ActiveHold(String id, Long tourId, Long clientId, Instant createdAt, Instant expiresAt) {
+    public static ActiveHold from(SeatHold seatHold) {
+        return new ActiveHold(seatHold.getId(), seatHold.getTour().getId(), seatHold.getClient().getId(),
+                seatHold.getCreatedAt(), seatHold.getExpiresAt());
+    }
+
+    public ActiveHold withExpiresAt(Instant expiresAt) {
+        return new ActiveHold(id, tourId, clientId, createdAt, expiresAt);
+    }
+}
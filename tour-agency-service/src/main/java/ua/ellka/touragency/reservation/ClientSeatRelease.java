@@ -0,0 +1,28 @@
+package ua.ellka.touragency.reservation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.repo.BookingRepo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Бронювання й утримання клієнта видаляються з ним каскадно в БД, і ніщо інше не повертає їхні місця турам,
+// тому перед видаленням клієнта місця повертаються явно - по одному UPDATE на тур
+@Component
+@RequiredArgsConstructor
+public class ClientSeatRelease {
+    private final BookingRepo bookingRepo;
+    private final SeatHoldRegistry seatHoldRegistry;
+    private final SeatReservations seatReservations;
+
+    public void releaseAll(Long clientId) {
+        Map<Long, Integer> seatsByTour = new HashMap<>();
+        bookingRepo.findBookingCountsByClientId(clientId).forEach(result ->
+                seatsByTour.merge(result.getTourId(), result.getBookingCount().intValue(), Integer::sum));
+        seatHoldRegistry.claimAll(clientId).forEach(hold ->
+                seatsByTour.merge(hold.tourId(), 1, Integer::sum));
+
+        seatsByTour.forEach(seatReservations::release);
+    }
+}
@@ -0,0 +1,114 @@
+package ua.ellka.touragency.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Хешоване колесо таймерів: таймер кладеться в комірку за номером тіку свого дедлайну,
+// тому додавання - O(1), а єдиний потік за тік обходить лише одну комірку.
+// Дедлайни, дальші за один оберт колеса, чекають потрібну кількість обертів (rounds).
+// Точність - один тік, чого досить для TTL у хвилинах
+@Slf4j
+final class HashedTimingWheel<T> implements AutoCloseable {
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    // Нові таймери передаються потоку колеса через чергу, самі комірки чіпає лише він
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private final ScheduledExecutorService ticker;
+    private long startMillis;
+    private long tick;
+
+    HashedTimingWheel(String name, Duration tickDuration, int wheelSize, Consumer<List<T>> onExpired) {
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) * 2 - 1);
+        this.tickMillis = tickDuration.toMillis();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.onExpired = onExpired;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        startAt(System.currentTimeMillis());
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Відлік тіків від заданого моменту без запуску потоку колеса: тести крутять колесо викликами tick()
+    void startAt(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    void schedule(T item, Instant deadline) {
+        pending.add(new Timeout<>(item, deadline.toEpochMilli()));
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    void tick() {
+        try {
+            transferPending();
+
+            List<T> expired = new ArrayList<>();
+            Iterator<Timeout<T>> iterator = buckets.get((int) (tick & mask)).iterator();
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                } else {
+                    expired.add(timeout.item);
+                    iterator.remove();
+                }
+            }
+            tick++;
+
+            if (!expired.isEmpty()) {
+                onExpired.accept(expired);
+            }
+        } catch (RuntimeException e) {
+            // Виняток у scheduleAtFixedRate зупинив би всі наступні тіки
+            log.error("Timing wheel tick failed", e);
+        }
+    }
+
+    // Тік n обробляється в момент start + (n + 1) * tick, тому дедлайн d потрапляє в тік ceil((d - start) / tick) - 1
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.max(-Math.floorDiv(startMillis - timeout.deadlineMillis, tickMillis) - 1, tick);
+            timeout.rounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private long rounds;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
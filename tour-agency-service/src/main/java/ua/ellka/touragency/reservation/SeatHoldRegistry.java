@@ -0,0 +1,149 @@
+package ua.ellka.touragency.reservation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.repo.SeatHoldRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Активні утримання місць у пам'яті: мапа за id і одне колесо таймерів на всі утримання.
+// Продовження лише змінює дедлайн у мапі - старий таймер, спрацювавши, бачить новий дедлайн
+// і переставляє себе, тому на кожне утримання в колесі завжди рівно один таймер
+@Slf4j
+@Component
+public class SeatHoldRegistry {
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SIZE = 512;
+
+    private final SeatHoldRepo seatHoldRepo;
+    private final SeatReservations seatReservations;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, ActiveHold> holds = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> timingWheel =
+            new HashedTimingWheel<>("seat-hold-timer", TICK, WHEEL_SIZE, this::expired);
+
+    public SeatHoldRegistry(SeatHoldRepo seatHoldRepo,
+                            SeatReservations seatReservations,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.seatHoldRepo = seatHoldRepo;
+        this.seatReservations = seatReservations;
+        this.transactionTemplate = transactionTemplate;
+        meterRegistry.gauge("booking.seat.holds.active", holds, Map::size);
+    }
+
+    // Утримання, що прострочились під час простою, повертають місця, решта знову стає на таймер
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        List<ActiveHold> expired = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> seatHoldRepo.findAll().forEach(seatHold -> {
+            ActiveHold hold = ActiveHold.from(seatHold);
+            if (hold.expiresAt().isAfter(now)) {
+                track(hold);
+            } else {
+                expired.add(hold);
+            }
+        }));
+        release(expired);
+
+        timingWheel.start();
+        log.info("Seat hold registry loaded {} active holds, released {} expired", holds.size(), expired.size());
+    }
+
+    public Optional<ActiveHold> find(String holdId) {
+        return Optional.ofNullable(holds.get(holdId));
+    }
+
+    public void add(ActiveHold hold) {
+        TransactionUtil.afterCommit(() -> track(hold));
+    }
+
+    // Новий дедлайн потрапляє в мапу лише після коміту: при відкаті таймер спрацює за старим
+    public ActiveHold extend(ActiveHold hold, Instant expiresAt) {
+        TransactionUtil.afterCommit(() -> holds.computeIfPresent(hold.id(),
+                (id, current) -> current.withExpiresAt(expiresAt)));
+        return hold.withExpiresAt(expiresAt);
+    }
+
+    // Забирає утримання з-під таймера (підтвердження або скасування).
+    // Хто прибрав запис з мапи, той і володіє місцем; при відкаті транзакції утримання повертається
+    public boolean claim(ActiveHold hold) {
+        if (!holds.remove(hold.id(), hold)) {
+            return false;
+        }
+
+        seatHoldRepo.deleteHold(hold.id());
+        TransactionUtil.afterRollback(() -> track(hold));
+        return true;
+    }
+
+    // Усі утримання клієнта, якого видаляють; місця повертає викликач
+    public List<ActiveHold> claimAll(Long clientId) {
+        return holds.values().stream()
+                .filter(hold -> hold.clientId().equals(clientId))
+                .filter(this::claim)
+                .toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        timingWheel.close();
+    }
+
+    private void track(ActiveHold hold) {
+        holds.put(hold.id(), hold);
+        timingWheel.schedule(hold.id(), hold.expiresAt());
+    }
+
+    // Викликається потоком колеса для всіх таймерів одного тіку
+    private void expired(List<String> holdIds) {
+        Instant now = Instant.now();
+        List<ActiveHold> expired = new ArrayList<>();
+
+        for (String holdId : holdIds) {
+            ActiveHold hold = holds.get(holdId);
+            if (hold == null) {
+                continue;
+            }
+            if (hold.expiresAt().isAfter(now)) {
+                timingWheel.schedule(holdId, hold.expiresAt());
+            } else if (holds.remove(holdId, hold)) {
+                expired.add(hold);
+            }
+        }
+
+        try {
+            release(expired);
+        } catch (RuntimeException e) {
+            // Повертаємо утримання в колесо - спроба повториться на наступному тіку
+            log.error("Failed to release {} expired seat holds", expired.size(), e);
+            expired.forEach(this::track);
+        }
+    }
+
+    private void release(List<ActiveHold> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> expired.forEach(hold -> {
+            seatHoldRepo.deleteHold(hold.id());
+            seatReservations.release(hold.tourId());
+        }));
+    }
+}
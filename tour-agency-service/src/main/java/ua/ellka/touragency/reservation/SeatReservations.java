@@ -0,0 +1,99 @@
+package ua.ellka.touragency.reservation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.exception.NotFoundServiceException;
+import ua.ellka.touragency.exception.SoldOutServiceException;
+import ua.ellka.touragency.index.TourSeatCounters;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+// Списання і повернення місць туру. Викликається всередині транзакції бронювання чи утримання
+@Component
+@RequiredArgsConstructor
+public class SeatReservations {
+    private final TourRepo tourRepo;
+    private final TourSeatCounters tourSeatCounters;
+    private final TourCatalogCache tourCatalogCache;
+
+    // Лічильник у пам'яті відсікає розпроданий тур без звернення до БД,
+    // а умовний UPDATE атомарно списує місце в самій БД
+    public Tour reserve(Long tourId) {
+        if (!tourSeatCounters.acquire(tourId)) {
+            throw new SoldOutServiceException("No seats available for tour with ID: " + tourId);
+        }
+
+        if (tourRepo.reserveSeat(tourId) == 1) {
+            // Сутність завантажиться вже після UPDATE, тому залишок місць у відповіді актуальний
+            Tour tour = tourRepo.getReferenceById(tourId);
+            evictTourAfterCommit(tour);
+            return tour;
+        }
+
+        Tour tour = tourRepo.findById(tourId)
+                .orElseThrow(() -> new NotFoundServiceException("Tour not found with ID: " + tourId));
+        if (tour.getCapacity() != null) {
+            tourSeatCounters.invalidate(tourId);
+            throw new SoldOutServiceException("No seats available for tour with ID: " + tourId);
+        }
+        return tour;
+    }
+
+    // Пакетне списання для write-behind бронювань, тур вже перевірено на існування.
+    // Повертає, скільки з запитаних місць вдалося списати. Якщо менше за запитане, лічильник
+    // туру скинуто: його місця, зайняті під відхилені бронювання, повертати вже не можна
+    public int reserve(Long tourId, int seats) {
+        int granted = seats;
+        if (tourRepo.reserveSeats(tourId, seats) == 0) {
+            if (tourRepo.findAvailableSeatsById(tourId).isEmpty()) {
+                // Тур без обмеження місць
+                return seats;
+            }
+
+            // На весь пакет місць не вистачає - роздаємо поштучно, скільки лишилось
+            granted = 0;
+            while (granted < seats && tourRepo.reserveSeat(tourId) == 1) {
+                granted++;
+            }
+            if (granted < seats) {
+                tourSeatCounters.invalidate(tourId);
+            }
+        }
+
+        if (granted > 0) {
+            evictTourAfterCommit(tourRepo.getReferenceById(tourId));
+        }
+        return granted;
+    }
+
+    // false - тур без обмеження місць (або вже видалений), повертати нічого
+    public boolean release(Long tourId) {
+        if (tourRepo.releaseSeat(tourId) == 0) {
+            return false;
+        }
+
+        tourSeatCounters.released(tourId);
+        tourRepo.findById(tourId).ifPresent(this::evictTourAfterCommit);
+        return true;
+    }
+
+    // Повернення кількох місць туру одним умовним UPDATE
+    public void release(Long tourId, int seats) {
+        if (tourRepo.releaseSeats(tourId, seats) == 0) {
+            return;
+        }
+
+        TransactionUtil.afterCommit(() -> tourSeatCounters.invalidate(tourId));
+        tourRepo.findById(tourId).ifPresent(this::evictTourAfterCommit);
+    }
+
+    // Залишок місць входить у TourDTO, тому закешовані дані туру скидаються після коміту
+    private void evictTourAfterCommit(Tour tour) {
+        Long tourId = tour.getId();
+        Long guideId = tour.getGuide().getId();
+        String countryName = tour.getCountry().getName();
+        TransactionUtil.afterCommit(() -> tourCatalogCache.evictTour(tourId, guideId, countryName));
+    }
+}
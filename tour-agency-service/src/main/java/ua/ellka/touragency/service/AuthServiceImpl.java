@@ -14,6 +14,7 @@ import ua.ellka.touragency.dto.*;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.executor.PasswordHashingExecutor;
 import ua.ellka.touragency.mapper.UserMapper;
 import ua.ellka.touragency.model.User;
 import ua.ellka.touragency.model.security.TourAgencyUserDetails;
@@ -32,15 +33,18 @@ public class AuthServiceImpl implements AuthService {
     private final GuideService guideService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Override
     public UserDTO registerUser(RegisterDTO registerDTO) {
-        String passwordHash = passwordEncoder.encode(registerDTO.getPassword());
-
+        // Спочатку дешева перевірка дубліката, і лише потім дороге хешування
         userRepo.findByEmail(registerDTO.getEmail()).ifPresent(user -> {
             throw new ExistingServiceException("User with email already exists");
         });
 
+        String passwordHash = passwordHashingExecutor.execute("register",
+                () -> passwordEncoder.encode(registerDTO.getPassword()));
+
         User user = new User();
         user.setEmail(registerDTO.getEmail());
         user.setPassword(passwordHash);
@@ -84,26 +88,19 @@ public class AuthServiceImpl implements AuthService {
 
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(authAttempt, password);
 
-        Authentication authenticate = authenticationManager.authenticate(authentication);
+        // DaoAuthenticationProvider вже перевіряє пароль (єдиний виклик BCrypt на логін)
+        // і кидає BadCredentialsException, якщо він не збігається
+        Authentication authenticate = passwordHashingExecutor.execute("login",
+                () -> authenticationManager.authenticate(authentication));
 
         TourAgencyUserDetails principal = (TourAgencyUserDetails) authenticate.getPrincipal();
+        String token = jwtUtil.generateToken(principal);
 
-        if (principal != null) {
-            String principalPassword = principal.getPassword();
-
-            boolean matches = passwordEncoder.matches(password, principalPassword);
-            if (matches) {
-                String token = jwtUtil.generateToken(principal);
-
-                AuthDTO authDTO = new AuthDTO();
-                authDTO.setUser(userMapper.userToUserDTO(user));
-                authDTO.setToken(token);
-
-                return authDTO;
-            }
-        }
+        AuthDTO authDTO = new AuthDTO();
+        authDTO.setUser(userMapper.userToUserDTO(user));
+        authDTO.setToken(token);
 
-        return null;
+        return authDTO;
     }
 
     //TODO realize method
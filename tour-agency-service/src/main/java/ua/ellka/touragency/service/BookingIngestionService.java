@@ -0,0 +1,9 @@
+package ua.ellka.touragency.service;
+
+import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+
+public interface BookingIngestionService {
+    BookingIngestionDTO submitBooking(BookingDTO bookingDTO);
+    BookingIngestionDTO getBookingStatus(String ticketId);
+}
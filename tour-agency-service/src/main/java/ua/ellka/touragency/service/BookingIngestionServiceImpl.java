@@ -0,0 +1,75 @@
+package ua.ellka.touragency.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+import ua.ellka.touragency.dto.BookingIngestionStatus;
+import ua.ellka.touragency.exception.BadRequestServiceException;
+import ua.ellka.touragency.exception.NotFoundServiceException;
+import ua.ellka.touragency.exception.SoldOutServiceException;
+import ua.ellka.touragency.index.TourSeatCounters;
+import ua.ellka.touragency.ingestion.BookingWriteBehindQueue;
+import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BookingIngestionServiceImpl implements BookingIngestionService {
+    private final BookingService bookingService;
+    private final BookingWriteBehindQueue bookingWriteBehindQueue;
+    private final TourSeatCounters tourSeatCounters;
+
+    @Override
+    public BookingIngestionDTO submitBooking(BookingDTO bookingDTO) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            throw new AuthorizationDeniedException("User must be authenticated to create a booking.");
+        }
+
+        // Без write-behind режиму (і для підтвердження утримання) бронюємо синхронно, формат відповіді той самий
+        if (!bookingWriteBehindQueue.isEnabled() || bookingDTO.getHoldId() != null) {
+            BookingDTO booking = bookingService.createBooking(bookingDTO);
+            BookingIngestionDTO confirmed = new BookingIngestionDTO(UUID.randomUUID().toString(),
+                    BookingIngestionStatus.CONFIRMED, booking.getId(), null);
+            bookingWriteBehindQueue.record(currentUserId, confirmed);
+            return confirmed;
+        }
+
+        Long tourId = bookingDTO.getTourId();
+        if (tourId == null) {
+            throw new BadRequestServiceException("Tour ID is required");
+        }
+
+        // Розпроданий тур відсікається одразу, без черги і без звернення до БД
+        if (!tourSeatCounters.acquire(tourId)) {
+            throw new SoldOutServiceException("No seats available for tour with ID: " + tourId);
+        }
+
+        LocalDate bookingDate = bookingDTO.getBookingDate() != null ? bookingDTO.getBookingDate() : LocalDate.now();
+        try {
+            return bookingWriteBehindQueue.enqueue(currentUserId, tourId, bookingDate);
+        } catch (RuntimeException e) {
+            tourSeatCounters.released(tourId);
+            throw e;
+        }
+    }
+
+    @Override
+    public BookingIngestionDTO getBookingStatus(String ticketId) {
+        return bookingWriteBehindQueue.status(ticketId, getCurrentUserId())
+                .orElseThrow(() -> new NotFoundServiceException("Booking request not found"));
+    }
+
+    private Long getCurrentUserId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TourAgencyUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
@@ -1,14 +1,15 @@
 package ua.ellka.touragency.service;
 
 import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.PageDTO;
 
-import java.util.List;
+import java.time.YearMonth;
 import java.util.Map;
 
 public interface BookingService {
     BookingDTO createBooking(BookingDTO bookingDTO);
-    List<BookingDTO> getAllBookingsByClientId(Long clientId);
-    List<BookingDTO> getBookingsForTourId(Long tourId);
+    PageDTO<BookingDTO> getAllBookingsByClientId(Long clientId, String after, Integer limit);
+    PageDTO<BookingDTO> getBookingsForTourId(Long tourId, String after, Integer limit);
     BookingDTO deleteBooking(Long id);
-    Map<String, Long> getBookingStatisticsByMonth();
+    Map<String, Long> getBookingStatisticsByMonth(YearMonth from, YearMonth to);
 }
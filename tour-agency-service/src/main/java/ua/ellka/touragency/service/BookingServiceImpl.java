@@ -2,15 +2,20 @@ package ua.ellka.touragency.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.PageDTO;
+import ua.ellka.touragency.exception.BadRequestServiceException;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.index.BookingStatisticsRollup;
+import ua.ellka.touragency.index.TourPopularityIndex;
 import ua.ellka.touragency.mapper.BookingMapper;
 import ua.ellka.touragency.model.Booking;
 import ua.ellka.touragency.model.Client;
@@ -19,11 +24,15 @@ import ua.ellka.touragency.model.security.TourAgencyUserDetails;
 import ua.ellka.touragency.repo.BookingRepo;
 import ua.ellka.touragency.repo.ClientRepo;
 import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.reservation.ActiveHold;
+import ua.ellka.touragency.reservation.SeatHoldRegistry;
+import ua.ellka.touragency.reservation.SeatReservations;
+import ua.ellka.touragency.util.CursorUtil;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +42,10 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepo bookingRepo;
     private final ClientRepo clientRepo;
     private final TourRepo tourRepo;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final BookingStatisticsRollup bookingStatisticsRollup;
+    private final SeatReservations seatReservations;
+    private final SeatHoldRegistry seatHoldRegistry;
 
     //16
     @Override
@@ -47,31 +60,54 @@ public class BookingServiceImpl implements BookingService {
         Client client = clientRepo.findByUserId(currentUserId)
                 .orElseThrow(() -> new NotFoundServiceException("Client profile not found."));
 
-        // 2. Шукаємо об'єкт Туру, використовуючи tourId з DTO
-        Tour tour = tourRepo.findById(bookingDTO.getTourId())
-                .orElseThrow(() -> new NotFoundServiceException("Tour not found with ID: " + bookingDTO.getTourId()));
+        // 2. Місце, утримане на попередніх кроках, підтверджується без повторного списання
+        ActiveHold hold = null;
+        Long tourId = bookingDTO.getTourId();
+        if (bookingDTO.getHoldId() != null) {
+            hold = seatHoldRegistry.find(bookingDTO.getHoldId())
+                    .filter(activeHold -> activeHold.clientId().equals(client.getId()))
+                    .orElseThrow(() -> new NotFoundServiceException("Seat hold not found or expired"));
+            if (tourId != null && !tourId.equals(hold.tourId())) {
+                throw new BadRequestServiceException("Seat hold belongs to another tour");
+            }
+            if (!seatHoldRegistry.claim(hold)) {
+                throw new NotFoundServiceException("Seat hold not found or expired");
+            }
+            tourId = hold.tourId();
+        }
 
         // 3. Перевірка дублікатів
-        bookingRepo.findExistingBooking(bookingDTO.getTourId(), client.getId(), bookingDTO.getBookingDate())
+        bookingRepo.findExistingBooking(tourId, client.getId(), bookingDTO.getBookingDate())
                 .ifPresent(existingBooking -> {
                     throw new ExistingServiceException("Booking already exists");
                 });
 
-        // 4. Створення моделі Booking (через мапер для простих полів)
+        // 4. Резервування місця (без утримання)
+        Tour tour = hold != null
+                ? tourRepo.getReferenceById(tourId)
+                : seatReservations.reserve(tourId);
+
+        // 5. Створення моделі Booking (через мапер для простих полів)
         Booking booking = bookingMapper.bookingDTOToBooking(bookingDTO);
 
-        // 5. ВАЖЛИВО: Присвоюємо об'єкти
+        // 6. ВАЖЛИВО: Присвоюємо об'єкти
         booking.setClient(client);
         booking.setTour(tour);
 
-        // 6. Встановлення дати
+        // 7. Встановлення дати
         if(bookingDTO.getBookingDate() == null) {
             booking.setBookingDate(LocalDate.now());
         }
 
         try {
-            Booking save = bookingRepo.save(booking);
+            // З id з пулу послідовності INSERT інакше відклався б до коміту, за межі цього catch
+            Booking save = bookingRepo.saveAndFlush(booking);
+            tourPopularityIndex.bookingCreated(tour.getId());
+            bookingStatisticsRollup.bookingCreated(save.getBookingDate());
             return bookingMapper.bookingToBookingDTO(save);
+        } catch (DataIntegrityViolationException e) {
+            // Паралельний дублікат пройшов findExistingBooking одночасно з нами - його відсікає унікальний індекс
+            throw new ExistingServiceException("Booking already exists");
         } catch (DataAccessException e) {
             throw new ServiceException("Error while creating booking: " + e.getMessage());
         }
@@ -80,47 +116,60 @@ public class BookingServiceImpl implements BookingService {
     //17
     @Override
     @PreAuthorize("@accessChecker.isClientOwner(#clientId)|| hasRole('ROLE_ADMIN')")
-    public List<BookingDTO> getAllBookingsByClientId(Long clientId) {
+    public PageDTO<BookingDTO> getAllBookingsByClientId(Long clientId, String after, Integer limit) {
         clientRepo.findById(clientId)
                 .orElseThrow(() -> new NotFoundServiceException("Client not found"));
 
-        List<Booking> bookingsByClientId = bookingRepo.findBookingsByClientId(clientId);
-        if (bookingsByClientId.isEmpty()) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<Booking> bookingsByClientId = bookingRepo.findByClientIdAndIdGreaterThanOrderByIdAsc(
+                clientId, afterId, CursorUtil.probe(pageSize));
+        if (bookingsByClientId.isEmpty() && after == null) {
             throw new NotFoundServiceException("Bookings not found");
         }
 
-        return bookingsByClientId.stream()
-                .map(bookingMapper::bookingToBookingDTO)
-                .toList();
-
+        return CursorUtil.toPage(bookingsByClientId, pageSize, Booking::getId, bookingMapper::bookingToBookingDTO);
     }
 
     //18
     @Override
-    public List<BookingDTO> getBookingsForTourId(Long tourId) {
+    public PageDTO<BookingDTO> getBookingsForTourId(Long tourId, String after, Integer limit) {
         tourRepo.findById(tourId)
                 .orElseThrow(() -> new NotFoundServiceException("Tour not found"));
 
-        List<Booking> bookingsByTourId = bookingRepo.findBookingsByTourId(tourId);
-        if (bookingsByTourId.isEmpty()) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<Booking> bookingsByTourId = bookingRepo.findByTourIdAndIdGreaterThanOrderByIdAsc(
+                tourId, afterId, CursorUtil.probe(pageSize));
+        if (bookingsByTourId.isEmpty() && after == null) {
             throw new NotFoundServiceException("No bookings found for the tour with id " + tourId);
         }
 
-        return bookingsByTourId.stream()
-                .map(bookingMapper::bookingToBookingDTO)
-                .toList();
+        return CursorUtil.toPage(bookingsByTourId, pageSize, Booking::getId, bookingMapper::bookingToBookingDTO);
     }
 
     //19
     @Override
     @PreAuthorize("@accessChecker.isBookingOwner(#id)|| hasRole('ROLE_ADMIN')")
+    @Transactional
     public BookingDTO deleteBooking(Long id) {
         Booking existingBooking = bookingRepo.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException("Booking not found"));
 
         try {
+            Tour tour = existingBooking.getTour();
             bookingRepo.delete(existingBooking);
-            return bookingMapper.bookingToBookingDTO(existingBooking);
+            tourPopularityIndex.bookingDeleted(tour.getId());
+            bookingStatisticsRollup.bookingDeleted(existingBooking.getBookingDate());
+
+            BookingDTO deletedBooking = bookingMapper.bookingToBookingDTO(existingBooking);
+            if (seatReservations.release(tour.getId())) {
+                // Тур завантажено до UPDATE, тому звільнене місце додаємо у відповідь вручну
+                deletedBooking.getTour().setAvailableSeats(deletedBooking.getTour().getAvailableSeats() + 1);
+            }
+            return deletedBooking;
         } catch (DataAccessException e) {
             throw new ServiceException("Failed to delete booking due to database error: " + e.getMessage());
         }
@@ -128,16 +177,18 @@ public class BookingServiceImpl implements BookingService {
 
     //23
     @Override
-    public Map<String, Long> getBookingStatisticsByMonth() {
-        if (bookingRepo.count() == 0) {
+    public Map<String, Long> getBookingStatisticsByMonth(YearMonth from, YearMonth to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestServiceException("Start month must not be after end month");
+        }
+
+        // Ключі у форматі YYYY-MM, тому однакові місяці різних років більше не зливаються
+        Map<String, Long> statistics = bookingStatisticsRollup.countsBetween(from, to);
+        if (statistics.isEmpty()) {
             throw new NotFoundServiceException("No bookings found");
         }
 
-        return bookingRepo.findBookingCountsByMonth().stream()
-                .collect(Collectors.toMap(
-                        BookingRepo.BookingCountByMonthResult::getMonth,
-                        BookingRepo.BookingCountByMonthResult::getCount
-                ));
+        return statistics;
     }
 
     private Long getCurrentUserId() {
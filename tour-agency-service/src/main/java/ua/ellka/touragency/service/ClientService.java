@@ -1,12 +1,13 @@
 package ua.ellka.touragency.service;
 
 import ua.ellka.touragency.dto.ClientDTO;
+import ua.ellka.touragency.dto.PageDTO;
 
 import java.util.List;
 
 public interface ClientService {
     ClientDTO createClient(ClientDTO clientDTO);
-    List<ClientDTO> getAllClients();
+    PageDTO<ClientDTO> getAllClients(String after, Integer limit);
     ClientDTO updateClient(Long id, ClientDTO clientDTO);
     ClientDTO deleteClient(Long id);
     List<ClientDTO> getClientsByCountry(Long countryId);
@@ -5,10 +5,13 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ua.ellka.touragency.dto.ClientDTO;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.index.TourPopularityIndex;
 import ua.ellka.touragency.mapper.ClientMapper;
 import ua.ellka.touragency.model.Booking;
 import ua.ellka.touragency.model.Client;
@@ -18,6 +21,8 @@ import ua.ellka.touragency.repo.BookingRepo;
 import ua.ellka.touragency.repo.ClientRepo;
 import ua.ellka.touragency.repo.CountryRepo;
 import ua.ellka.touragency.repo.UserRepo;
+import ua.ellka.touragency.reservation.ClientSeatRelease;
+import ua.ellka.touragency.util.CursorUtil;
 
 import java.util.List;
 
@@ -30,6 +35,8 @@ public class ClientServiceImpl implements ClientService {
     private final BookingRepo bookingRepo;
     private final CountryRepo countryRepo;
     private final UserRepo userRepo;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final ClientSeatRelease clientSeatRelease;
 
     //8
     @Override
@@ -65,14 +72,16 @@ public class ClientServiceImpl implements ClientService {
 
     //9
     @Override
-    public List<ClientDTO> getAllClients() {
-        if (clientRepo.count() == 0) {
+    public PageDTO<ClientDTO> getAllClients(String after, Integer limit) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<Client> clients = clientRepo.findByIdGreaterThanOrderByIdAsc(afterId, CursorUtil.probe(pageSize));
+        if (clients.isEmpty() && after == null) {
             throw new NotFoundServiceException("Clients not found");
         }
 
-        return clientRepo.findAll().stream()
-                .map(clientMapper::clientToClientDTO)
-                .toList();
+        return CursorUtil.toPage(clients, pageSize, Client::getId, clientMapper::clientToClientDTO);
     }
 
     //10
@@ -110,6 +119,7 @@ public class ClientServiceImpl implements ClientService {
     //11
     @Override
     @PreAuthorize("@accessChecker.isClientOwner(#id) || hasRole('ROLE_ADMIN')")
+    @Transactional
     public ClientDTO deleteClient(Long id) {
         Client existingClient = clientRepo.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException("Client not found"));
@@ -117,8 +127,10 @@ public class ClientServiceImpl implements ClientService {
         User user = existingClient.getUser();
 
         try {
+            clientSeatRelease.releaseAll(existingClient.getId());
             clientRepo.delete(existingClient);
             userRepo.delete(user);
+            tourPopularityIndex.rebuildAfterCommit();
             return clientMapper.clientToClientDTO(existingClient);
         } catch (DataAccessException e) {
             throw new ServiceException("Failed to delete client due to database error");
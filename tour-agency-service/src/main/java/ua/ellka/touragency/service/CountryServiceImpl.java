@@ -3,13 +3,20 @@ package ua.ellka.touragency.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import ua.ellka.touragency.cache.TourCatalogCache;
 import ua.ellka.touragency.dto.CountryDTO;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.index.CountryDictionary;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
 import ua.ellka.touragency.mapper.CountryMapper;
 import ua.ellka.touragency.model.Country;
 import ua.ellka.touragency.repo.CountryRepo;
+import ua.ellka.touragency.util.TransactionUtil;
 
 import java.util.List;
 
@@ -19,18 +26,19 @@ public class CountryServiceImpl implements CountryService {
 
     private final CountryMapper countryMapper;
     private final CountryRepo countryRepo;
+    private final TourCatalogCache tourCatalogCache;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourDateIndex tourDateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final CountryDictionary countryDictionary;
 
     //5
     @Override
     public CountryDTO createCountry(CountryDTO countryDTO) {
-        countryRepo.findByNameAndRegion(countryDTO.getName(), countryDTO.getRegion())
-                .ifPresent(exists -> {
-                    throw new ExistingServiceException("Country already exists");
-                });
-
         try {
-            Country country = countryMapper.countryDTOToCountry(countryDTO);
-            Country save = countryRepo.save(country);
+            Country save = countryDictionary.create(countryDTO.getName(), countryDTO.getRegion())
+                    .orElseThrow(() -> new ExistingServiceException("Country already exists"));
             return countryMapper.countryToCountryDTO(save);
         }catch (DataAccessException e) {
             throw new ServiceException("Error while creating country: " + e.getMessage());
@@ -57,6 +65,12 @@ public class CountryServiceImpl implements CountryService {
 
         try {
             countryRepo.delete(existingCountry);
+            countryDictionary.countryDeleted(existingCountry);
+            TransactionUtil.afterCommit(tourCatalogCache::evictAll);
+            tourPopularityIndex.rebuildAfterCommit();
+            tourSearchIndex.rebuildAfterCommit();
+            tourDateIndex.rebuildAfterCommit();
+            suggestionIndex.reloadAfterCommit();
             return countryMapper.countryToCountryDTO(existingCountry);
         } catch (DataAccessException e) {
             throw new ServiceException("Failed to delete country due to database error");
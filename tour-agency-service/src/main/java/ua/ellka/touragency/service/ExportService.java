@@ -0,0 +1,17 @@
+package ua.ellka.touragency.service;
+
+import ua.ellka.touragency.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    ExportWriter exportTours(ExportFormat format);
+    ExportWriter exportBookings(Long tourId, ExportFormat format);
+
+    // Відкладений запис експорту: перевірки доступу виконуються одразу, а рядки пишуться вже у тіло відповіді
+    @FunctionalInterface
+    interface ExportWriter {
+        void writeTo(OutputStream output) throws IOException;
+    }
+}
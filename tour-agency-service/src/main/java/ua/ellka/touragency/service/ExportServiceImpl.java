@@ -0,0 +1,131 @@
+package ua.ellka.touragency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.dto.BookingExportDTO;
+import ua.ellka.touragency.dto.ExportFormat;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.exception.NotFoundServiceException;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.CsvUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Експорт іде курсором з БД прямо у вихідний потік: у пам'яті лише поточна порція fetch size,
+// а перші байти відправляються клієнту ще до того, як дочитано всю вибірку.
+// Заголовки CSV збігаються з полями DTO, тому експорт турів можна знову завантажити через імпорт
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final List<String> TOUR_COLUMNS = List.of(
+            "id", "name", "countryId", "countryName", "countryRegion", "startDate", "endDate",
+            "price", "guideId", "guideName", "imageUrl", "capacity", "availableSeats");
+    private static final List<String> BOOKING_COLUMNS = List.of(
+            "id", "tourId", "tourName", "clientId", "clientName", "bookingDate");
+
+    private final TourRepo tourRepo;
+    private final BookingRepo bookingRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(TourRepo tourRepo,
+                             BookingRepo bookingRepo,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate) {
+        this.tourRepo = tourRepo;
+        this.bookingRepo = bookingRepo;
+        this.objectMapper = objectMapper;
+        // Курсор PostgreSQL з fetch size працює лише всередині транзакції
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ExportWriter exportTours(ExportFormat format) {
+        return output -> write(output, format, TOUR_COLUMNS, tourRepo::streamAllTourDTOs, tour -> Arrays.asList(
+                tour.getId(), tour.getName(), tour.getCountryId(), tour.getCountryName(), tour.getCountryRegion(),
+                tour.getStartDate(), tour.getEndDate(), tour.getPrice(), tour.getGuideId(), tour.getGuideName(),
+                tour.getImageUrl(), tour.getCapacity(), tour.getAvailableSeats()));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public ExportWriter exportBookings(Long tourId, ExportFormat format) {
+        Supplier<Stream<BookingExportDTO>> bookings;
+        if (tourId == null) {
+            bookings = bookingRepo::streamAllBookingExports;
+        } else {
+            if (!tourRepo.existsById(tourId)) {
+                throw new NotFoundServiceException("Tour not found with ID: " + tourId);
+            }
+            bookings = () -> bookingRepo.streamBookingExportsByTourId(tourId);
+        }
+
+        return output -> write(output, format, BOOKING_COLUMNS, bookings, booking -> Arrays.asList(
+                booking.getId(), booking.getTourId(), booking.getTourName(),
+                booking.getClientId(), booking.getClientName(), booking.getBookingDate()));
+    }
+
+    private <T> void write(OutputStream output,
+                           ExportFormat format,
+                           List<String> columns,
+                           Supplier<Stream<T>> rows,
+                           Function<T, List<Object>> csvRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        try {
+            long count = readOnlyTransaction.execute(status -> {
+                long written = 0;
+                try (Stream<T> stream = rows.get()) {
+                    Iterator<T> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        T row = iterator.next();
+                        writer.write(format == ExportFormat.CSV ? toCsv(csvRow.apply(row)) : objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                        written++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+            log.debug("Exported {} rows", count);
+        } catch (UncheckedIOException e) {
+            // Клієнт обірвав з'єднання: транзакція вже відкочена, курсор закрито
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(List<Object> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(CsvUtil.escape(values.get(i)));
+        }
+        return line.toString();
+    }
+}
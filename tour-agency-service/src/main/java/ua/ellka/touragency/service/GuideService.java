@@ -1,12 +1,11 @@
 package ua.ellka.touragency.service;
 
 import ua.ellka.touragency.dto.GuideDTO;
-
-import java.util.List;
+import ua.ellka.touragency.dto.PageDTO;
 
 public interface GuideService {
     GuideDTO createGuide(GuideDTO guideDTO);
-    List<GuideDTO> getAllGuides();
+    PageDTO<GuideDTO> getAllGuides(String after, Integer limit);
     GuideDTO updateGuide(Long id, GuideDTO guideDTO);
     GuideDTO deleteGuide(Long id);
     GuideDTO getCurrentGuide();
@@ -5,16 +5,25 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import ua.ellka.touragency.cache.TourCatalogCache;
 import ua.ellka.touragency.dto.GuideDTO;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.index.FuzzyNameIndex;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
 import ua.ellka.touragency.mapper.GuideMapper;
 import ua.ellka.touragency.model.Guide;
 import ua.ellka.touragency.model.User;
 import ua.ellka.touragency.model.security.TourAgencyUserDetails;
 import ua.ellka.touragency.repo.GuideRepo;
 import ua.ellka.touragency.repo.UserRepo;
+import ua.ellka.touragency.util.CursorUtil;
+import ua.ellka.touragency.util.TransactionUtil;
 
 import java.util.List;
 
@@ -25,6 +34,12 @@ public class GuideServiceImpl implements GuideService {
     private final GuideMapper guideMapper;
     private final GuideRepo guideRepo;
     private final UserRepo userRepo;
+    private final TourCatalogCache tourCatalogCache;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourDateIndex tourDateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FuzzyNameIndex fuzzyNameIndex;
 
     //12
     @Override
@@ -42,6 +57,7 @@ public class GuideServiceImpl implements GuideService {
 
         try {
             Guide save = guideRepo.save(guide);
+            fuzzyNameIndex.guideSaved(save.getId(), null, save.getName());
             return guideMapper.guideToGuideDTO(save);
         }catch (DataAccessException e) {
             throw new ServiceException("Error while creating guide: " + e.getMessage());
@@ -50,14 +66,16 @@ public class GuideServiceImpl implements GuideService {
 
     //13
     @Override
-    public List<GuideDTO> getAllGuides() {
-        if (guideRepo.count() == 0) {
+    public PageDTO<GuideDTO> getAllGuides(String after, Integer limit) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<Guide> guides = guideRepo.findByIdGreaterThanOrderByIdAsc(afterId, CursorUtil.probe(pageSize));
+        if (guides.isEmpty() && after == null) {
             throw new NotFoundServiceException("Guides not found");
         }
 
-        return guideRepo.findAll().stream()
-                .map(guideMapper::guideToGuideDTO)
-                .toList();
+        return CursorUtil.toPage(guides, pageSize, Guide::getId, guideMapper::guideToGuideDTO);
     }
 
     //14
@@ -73,11 +91,17 @@ public class GuideServiceImpl implements GuideService {
                     throw new ExistingServiceException("Name already exists");
                 });
 
+        String previousName = updatedGuide.getName();
         updatedGuide.setName(guideDTO.getName());
         updatedGuide.setLanguage(guideDTO.getLanguage());
 
         try {
             Guide save = guideRepo.save(updatedGuide);
+            TransactionUtil.afterCommit(tourCatalogCache::evictAll);
+            tourSearchIndex.rebuildAfterCommit();
+            tourDateIndex.rebuildAfterCommit();
+            suggestionIndex.reloadAfterCommit();
+            fuzzyNameIndex.guideSaved(save.getId(), previousName, save.getName());
             return guideMapper.guideToGuideDTO(save);
         }catch (DataAccessException e) {
             throw new ServiceException("Error while updating guide: " + e.getMessage());
@@ -96,6 +120,12 @@ public class GuideServiceImpl implements GuideService {
         try {
             guideRepo.delete(existingGuide);
             userRepo.delete(user);
+            TransactionUtil.afterCommit(tourCatalogCache::evictAll);
+            tourPopularityIndex.rebuildAfterCommit();
+            tourSearchIndex.rebuildAfterCommit();
+            tourDateIndex.rebuildAfterCommit();
+            suggestionIndex.reloadAfterCommit();
+            fuzzyNameIndex.guideDeleted(existingGuide.getId(), existingGuide.getName());
             return guideMapper.guideToGuideDTO(existingGuide);
         } catch (DataAccessException e) {
             throw new ServiceException("Failed to delete guide due to database error");
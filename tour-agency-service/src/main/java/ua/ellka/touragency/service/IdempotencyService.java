@@ -0,0 +1,10 @@
+package ua.ellka.touragency.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    <T> Result<T> execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action);
+
+    record Result<T>(T body, boolean replayed) {
+    }
+}
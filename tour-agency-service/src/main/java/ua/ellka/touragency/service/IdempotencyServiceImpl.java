@@ -0,0 +1,146 @@
+package ua.ellka.touragency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.exception.BadRequestServiceException;
+import ua.ellka.touragency.exception.ExistingServiceException;
+import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.model.IdempotencyRecord;
+import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+import ua.ellka.touragency.repo.IdempotencyRecordRepo;
+import ua.ellka.touragency.util.TransactionUtil;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+// Ключ захоплюється в тій самій транзакції, що й запис, тому відповідь зберігається рівно тоді,
+// коли комітиться сама операція. Повтори з тим самим ключем читаються з пам'яті, а після її витіснення - з БД
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepo idempotencyRecordRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepo idempotencyRecordRepo,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${idempotency.retention:24h}") Duration retention,
+                                  @Value("${idempotency.memory-size:10000}") long memorySize) {
+        this.idempotencyRecordRepo = idempotencyRecordRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(memorySize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    @Override
+    public <T> Result<T> execute(String scope, String idempotencyKey, Object request,
+                                 Class<T> responseType, Supplier<T> action) {
+        Long userId = getCurrentUserId();
+        if (idempotencyKey == null || userId == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestServiceException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters long");
+        }
+
+        String requestHash = hash(request);
+        String cacheKey = scope + ':' + userId + ':' + idempotencyKey;
+
+        StoredResponse stored = responses.getIfPresent(cacheKey);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        return transactionTemplate.execute(status -> {
+            if (idempotencyRecordRepo.claim(scope, userId, idempotencyKey, requestHash, Instant.now()) == 0) {
+                IdempotencyRecord record = idempotencyRecordRepo
+                        .findByScopeAndUserIdAndIdempotencyKey(scope, userId, idempotencyKey)
+                        .orElseThrow(() -> new ExistingServiceException("Request with this Idempotency-Key is still in progress"));
+                if (record.getResponseBody() == null) {
+                    throw new ExistingServiceException("Request with this Idempotency-Key is still in progress");
+                }
+
+                StoredResponse recorded = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+                responses.put(cacheKey, recorded);
+                return replay(recorded, requestHash, responseType);
+            }
+
+            T body = action.get();
+            String responseBody = write(body);
+            idempotencyRecordRepo.complete(scope, userId, idempotencyKey, responseBody);
+            TransactionUtil.afterCommit(() -> responses.put(cacheKey, new StoredResponse(requestHash, responseBody)));
+            return new Result<>(body, false);
+        });
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepo.deleteCreatedBefore(Instant.now().minus(retention));
+        log.info("Purged {} expired idempotency records", deleted);
+    }
+
+    // Той самий ключ з іншим тілом запиту - помилка клієнта, а не повтор
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestServiceException("Idempotency-Key has already been used with a different request");
+        }
+
+        try {
+            return new Result<>(objectMapper.readValue(stored.body(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Failed to read stored response: " + e.getMessage());
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Failed to store response: " + e.getMessage());
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestServiceException("Request body cannot be serialized: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Long getCurrentUserId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TourAgencyUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
@@ -0,0 +1,9 @@
+package ua.ellka.touragency.service;
+
+import ua.ellka.touragency.dto.SeatHoldDTO;
+
+public interface SeatHoldService {
+    SeatHoldDTO createHold(SeatHoldDTO seatHoldDTO);
+    SeatHoldDTO extendHold(String holdId);
+    SeatHoldDTO releaseHold(String holdId);
+}
@@ -0,0 +1,125 @@
+package ua.ellka.touragency.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.dto.SeatHoldDTO;
+import ua.ellka.touragency.exception.ExistingServiceException;
+import ua.ellka.touragency.exception.NotFoundServiceException;
+import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.model.Client;
+import ua.ellka.touragency.model.SeatHold;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+import ua.ellka.touragency.repo.ClientRepo;
+import ua.ellka.touragency.repo.SeatHoldRepo;
+import ua.ellka.touragency.reservation.ActiveHold;
+import ua.ellka.touragency.reservation.SeatHoldRegistry;
+import ua.ellka.touragency.reservation.SeatReservations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SeatHoldServiceImpl implements SeatHoldService {
+    private final ClientRepo clientRepo;
+    private final SeatHoldRepo seatHoldRepo;
+    private final SeatHoldRegistry seatHoldRegistry;
+    private final SeatReservations seatReservations;
+
+    @Value("${booking.hold.ttl:10m}")
+    private Duration holdTtl;
+
+    @Value("${booking.hold.max-duration:30m}")
+    private Duration holdMaxDuration;
+
+    @Override
+    @Transactional
+    public SeatHoldDTO createHold(SeatHoldDTO seatHoldDTO) {
+        Client client = getCurrentClient();
+        Long tourId = seatHoldDTO.getTourId();
+
+        if (seatHoldRepo.existsByTourIdAndClientId(tourId, client.getId())) {
+            throw new ExistingServiceException("Seat is already held for this tour");
+        }
+
+        // Місце списується так само, як при бронюванні, і повертається, якщо утримання не підтвердять
+        Tour tour = seatReservations.reserve(tourId);
+
+        Instant now = Instant.now();
+        SeatHold seatHold;
+        try {
+            seatHold = seatHoldRepo.saveAndFlush(new SeatHold(UUID.randomUUID().toString(), tour, client,
+                    now, now.plus(holdTtl)));
+        } catch (DataIntegrityViolationException e) {
+            // Паралельний запит того ж клієнта встиг утримати місце першим (унікальність tour_id + client_id)
+            throw new ExistingServiceException("Seat is already held for this tour");
+        } catch (DataAccessException e) {
+            throw new ServiceException("Error while holding seat: " + e.getMessage());
+        }
+
+        ActiveHold hold = ActiveHold.from(seatHold);
+        seatHoldRegistry.add(hold);
+        return toDTO(hold);
+    }
+
+    @Override
+    @Transactional
+    public SeatHoldDTO extendHold(String holdId) {
+        ActiveHold hold = getOwnHold(holdId);
+
+        // Продовження не може тримати місце довше за max-duration від створення утримання
+        Instant expiresAt = Instant.now().plus(holdTtl);
+        Instant latest = hold.createdAt().plus(holdMaxDuration);
+        if (expiresAt.isAfter(latest)) {
+            expiresAt = latest;
+        }
+
+        // Спершу рядок у БД: якщо його вже видалив таймер або підтвердження, продовжувати нічого
+        if (seatHoldRepo.updateExpiresAt(holdId, expiresAt) == 0) {
+            throw new NotFoundServiceException("Seat hold not found or expired");
+        }
+        return toDTO(seatHoldRegistry.extend(hold, expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public SeatHoldDTO releaseHold(String holdId) {
+        ActiveHold hold = getOwnHold(holdId);
+        if (!seatHoldRegistry.claim(hold)) {
+            throw new NotFoundServiceException("Seat hold not found or expired");
+        }
+
+        seatReservations.release(hold.tourId());
+        return toDTO(hold);
+    }
+
+    // Чуже утримання відповідає так само, як відсутнє
+    private ActiveHold getOwnHold(String holdId) {
+        Client client = getCurrentClient();
+        return seatHoldRegistry.find(holdId)
+                .filter(hold -> hold.clientId().equals(client.getId()))
+                .orElseThrow(() -> new NotFoundServiceException("Seat hold not found or expired"));
+    }
+
+    private Client getCurrentClient() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof TourAgencyUserDetails userDetails)) {
+            throw new AuthorizationDeniedException("User must be authenticated to hold a seat.");
+        }
+
+        return clientRepo.findByUserId(userDetails.getId())
+                .orElseThrow(() -> new NotFoundServiceException("Client profile not found."));
+    }
+
+    private SeatHoldDTO toDTO(ActiveHold hold) {
+        return new SeatHoldDTO(hold.id(), hold.tourId(), hold.clientId(), hold.expiresAt());
+    }
+}
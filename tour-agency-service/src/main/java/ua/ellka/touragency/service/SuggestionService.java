@@ -0,0 +1,9 @@
+package ua.ellka.touragency.service;
+
+import ua.ellka.touragency.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface SuggestionService {
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+}
@@ -0,0 +1,26 @@
+package ua.ellka.touragency.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ua.ellka.touragency.dto.SuggestionDTO;
+import ua.ellka.touragency.exception.BadRequestServiceException;
+import ua.ellka.touragency.index.SuggestionIndex;
+
+import java.util.List;
+
+// Запити на кожне натискання клавіші: відповідь лише зі знімка в пам'яті, без БД
+@Service
+@RequiredArgsConstructor
+public class SuggestionServiceImpl implements SuggestionService {
+    private final SuggestionIndex suggestionIndex;
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestServiceException("Prefix is required");
+        }
+        int resultLimit = limit == null || limit <= 0 ? SuggestionIndex.MAX_LIMIT : Math.min(limit, SuggestionIndex.MAX_LIMIT);
+
+        return suggestionIndex.suggest(prefix, resultLimit);
+    }
+}
@@ -0,0 +1,10 @@
+package ua.ellka.touragency.service;
+
+import ua.ellka.touragency.dto.TourImportFormat;
+import ua.ellka.touragency.dto.TourImportReportDTO;
+
+import java.io.InputStream;
+
+public interface TourImportService {
+    TourImportReportDTO importTours(InputStream input, TourImportFormat format);
+}
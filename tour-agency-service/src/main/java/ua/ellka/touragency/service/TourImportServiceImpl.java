@@ -0,0 +1,286 @@
+package ua.ellka.touragency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourImportErrorDTO;
+import ua.ellka.touragency.dto.TourImportFormat;
+import ua.ellka.touragency.dto.TourImportReportDTO;
+import ua.ellka.touragency.exception.BadRequestServiceException;
+import ua.ellka.touragency.index.CountryDictionary;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
+import ua.ellka.touragency.mapper.TourMapper;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.GuideRepo;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.util.CsvUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Імпорт читає файл потоково і обробляє його частинами по batch-size рядків:
+// на частину - кілька запитів за множинами (назви, гіди, країни) і пакетні INSERT в одній транзакції.
+// Помилковий рядок не зупиняє імпорт, а потрапляє у звіт з номером рядка
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TourImportServiceImpl implements TourImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TourRepo tourRepo;
+    private final GuideRepo guideRepo;
+    private final CountryDictionary countryDictionary;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourDateIndex tourDateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final TourMapper tourMapper;
+    private final TourCatalogCache tourCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${tour.import.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public TourImportReportDTO importTours(InputStream input, TourImportFormat format) {
+        TourImportReportDTO report = new TourImportReportDTO();
+        Set<String> importedNames = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            if (format == TourImportFormat.CSV) {
+                String headerLine = reader.readLine();
+                if (headerLine == null) {
+                    throw new BadRequestServiceException("CSV header is missing");
+                }
+                header = CsvUtil.parseLine(headerLine.strip());
+                lineNumber++;
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                // Поле в лапках може містити переноси рядків: запис триває, доки лапки не закриються,
+                // а у звіт потрапляє номер його першого рядка
+                long recordLine = lineNumber;
+                if (format == TourImportFormat.CSV) {
+                    String next;
+                    while (CsvUtil.isUnterminated(line) && (next = reader.readLine()) != null) {
+                        line = line + '\n' + next;
+                        lineNumber++;
+                    }
+                }
+
+                report.setTotal(report.getTotal() + 1);
+                try {
+                    TourDTO tourDTO = format == TourImportFormat.CSV
+                            ? fromCsv(header, CsvUtil.parseLine(line))
+                            : objectMapper.readValue(line, TourDTO.class);
+                    chunk.add(new ImportRow(recordLine, tourDTO));
+                } catch (IOException | RuntimeException e) {
+                    reject(report, recordLine, "Malformed row: " + e.getMessage());
+                }
+
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, importedNames, report);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, importedNames, report);
+        } catch (IOException e) {
+            throw new BadRequestServiceException("Failed to read import file: " + e.getMessage());
+        } finally {
+            if (report.getImported() > 0) {
+                tourCatalogCache.evictAll();
+            }
+        }
+
+        log.info("Tour import finished: {} rows, {} imported, {} failed",
+                report.getTotal(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    // importedNames - назви, вже записані попередніми частинами файлу
+    private void importChunk(List<ImportRow> chunk, Set<String> importedNames, TourImportReportDTO report) {
+        // Перевірки без звернення до БД
+        List<ImportRow> rows = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            String error = validate(row.tour());
+            if (error == null && importedNames.contains(row.tour().getName())) {
+                error = "Tour name already exists";
+            }
+            if (error != null) {
+                reject(report, row.line(), error);
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<TourImportErrorDTO> errors = new ArrayList<>();
+        try {
+            List<String> imported = transactionTemplate.execute(status -> writeChunk(rows, errors));
+            // Назва зайнята лише після коміту: рядок, що впав, не блокує її дублікат далі у файлі
+            importedNames.addAll(imported);
+            report.setImported(report.getImported() + imported.size());
+            errors.forEach(error -> reject(report, error.getLine(), error.getMessage()));
+        } catch (DataAccessException e) {
+            log.error("Tour import batch failed", e);
+            rows.forEach(row -> reject(report, row.line(), "Batch failed: " + e.getMostSpecificCause().getMessage()));
+        } finally {
+            // Сутності частини більше не потрібні, persistence context не росте разом з файлом
+            entityManager.clear();
+        }
+    }
+
+    private List<String> writeChunk(List<ImportRow> rows, List<TourImportErrorDTO> errors) {
+        Set<String> existingNames = new HashSet<>(tourRepo.findExistingNames(
+                rows.stream().map(row -> row.tour().getName()).toList()));
+        Map<Long, Guide> guides = guideRepo.findAllById(
+                        rows.stream().map(row -> row.tour().getGuideId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Guide::getId, Function.identity()));
+
+        // Дублікат назви всередині частини відкидається лише після того, як перший рядок з нею пройшов перевірки
+        Set<String> chunkNames = new HashSet<>();
+        List<ImportRow> valid = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (existingNames.contains(row.tour().getName())) {
+                errors.add(new TourImportErrorDTO(row.line(), "Tour name already exists"));
+            } else if (!guides.containsKey(row.tour().getGuideId())) {
+                errors.add(new TourImportErrorDTO(row.line(), "Guide not found with ID: " + row.tour().getGuideId()));
+            } else if (!chunkNames.add(row.tour().getName())) {
+                errors.add(new TourImportErrorDTO(row.line(), "Tour name already exists"));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        Map<CountryKey, Country> countries = resolveCountries(valid);
+
+        List<Tour> tours = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            TourDTO tourDTO = row.tour();
+            Tour tour = tourMapper.tourDTOToTour(tourDTO);
+            tour.setId(null);
+            tour.setCountry(countries.get(CountryKey.of(tourDTO)));
+            tour.setGuide(guides.get(tourDTO.getGuideId()));
+            tour.setAvailableSeats(tour.getCapacity());
+            tours.add(tour);
+        }
+
+        tourRepo.saveAll(tours);
+        entityManager.flush();
+        tours.forEach(tourSearchIndex::tourSaved);
+        tours.forEach(tourDateIndex::tourSaved);
+        tours.forEach(suggestionIndex::tourSaved);
+        return tours.stream().map(Tour::getName).toList();
+    }
+
+    // Країни частини: кожна пара назва+регіон резолвиться один раз через словник
+    private Map<CountryKey, Country> resolveCountries(List<ImportRow> rows) {
+        Map<CountryKey, Country> countries = new HashMap<>();
+        rows.forEach(row -> countries.computeIfAbsent(CountryKey.of(row.tour()),
+                key -> countryDictionary.resolve(key.name(), key.region())));
+        return countries;
+    }
+
+    private String validate(TourDTO tourDTO) {
+        if (tourDTO.getName() == null || tourDTO.getName().isBlank()) {
+            return "Tour name is required";
+        }
+        if (tourDTO.getCountryName() == null || tourDTO.getCountryName().isBlank()) {
+            return "Country name is required.";
+        }
+        if (tourDTO.getGuideId() == null) {
+            return "Guide ID is required";
+        }
+        if (tourDTO.getPrice() == null || tourDTO.getPrice().signum() < 0) {
+            return "Price must be a non-negative number";
+        }
+        if (tourDTO.getStartDate() != null && tourDTO.getEndDate() != null
+                && tourDTO.getEndDate().isBefore(tourDTO.getStartDate())) {
+            return "End date must not be before start date";
+        }
+        if (tourDTO.getCapacity() != null && tourDTO.getCapacity() < 0) {
+            return "Capacity must not be negative";
+        }
+        return null;
+    }
+
+    // Колонки CSV називаються як поля TourDTO, невідомі колонки ігноруються
+    private TourDTO fromCsv(List<String> header, List<String> values) {
+        TourDTO tourDTO = new TourDTO();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).strip();
+            if (value.isEmpty()) {
+                continue;
+            }
+
+            switch (header.get(i).strip()) {
+                case "name" -> tourDTO.setName(value);
+                case "countryName" -> tourDTO.setCountryName(value);
+                case "countryRegion" -> tourDTO.setCountryRegion(value);
+                case "startDate" -> tourDTO.setStartDate(LocalDate.parse(value));
+                case "endDate" -> tourDTO.setEndDate(LocalDate.parse(value));
+                case "price" -> tourDTO.setPrice(new BigDecimal(value));
+                case "guideId" -> tourDTO.setGuideId(Long.valueOf(value));
+                case "imageUrl" -> tourDTO.setImageUrl(value);
+                case "capacity" -> tourDTO.setCapacity(Integer.valueOf(value));
+                default -> {
+                }
+            }
+        }
+        return tourDTO;
+    }
+
+    private void reject(TourImportReportDTO report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new TourImportErrorDTO(line, message));
+        }
+    }
+
+    private record ImportRow(long line, TourDTO tour) {
+    }
+
+    private record CountryKey(String name, String region) {
+        static CountryKey of(TourDTO tourDTO) {
+            return new CountryKey(tourDTO.getCountryName(), tourDTO.getCountryRegion());
+        }
+    }
+}
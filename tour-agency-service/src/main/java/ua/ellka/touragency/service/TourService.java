@@ -1,13 +1,18 @@
 package ua.ellka.touragency.service;
 
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourFilterDTO;
+import ua.ellka.touragency.dto.TourFilterResultDTO;
+import ua.ellka.touragency.dto.TourProfitDTO;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TourService {
     TourDTO createTour(TourDTO tourDTO);
-    List<TourDTO> getAllTours();
+    PageDTO<TourDTO> getAllTours(String after, Integer limit);
     TourDTO updateTour(Long id, TourDTO tourDTO);
     TourDTO deleteTour(Long id);
     List<TourDTO> getToursByGuideName(String guideName);
@@ -15,5 +20,14 @@ public interface TourService {
     List<TourDTO> getToursByCountryName(String countryName);
     List<TourDTO> getMostPopularTours();
     BigDecimal getTourProfit(Long id);
+    List<TourProfitDTO> getTourProfitsByGuideId(Long guideId);
     TourDTO getTourById(Long id);
+    List<TourDTO> searchTours(String query, Integer limit);
+    TourFilterResultDTO filterTours(TourFilterDTO filter, String after, Integer limit);
+    PageDTO<TourDTO> getAvailableTours(LocalDate from, LocalDate to, String after, Integer limit);
+
+    // Версії для ETag/Last-Modified, без звернення до БД
+    long getCatalogVersion();
+    long getTourVersion(Long id);
+    String getPopularToursVersion();
 }
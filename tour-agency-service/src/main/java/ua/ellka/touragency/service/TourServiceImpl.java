@@ -1,62 +1,91 @@
 package ua.ellka.touragency.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourFilterDTO;
+import ua.ellka.touragency.dto.TourFilterResultDTO;
+import ua.ellka.touragency.dto.TourProfitDTO;
+import ua.ellka.touragency.exception.BadRequestServiceException;
 import ua.ellka.touragency.exception.ExistingServiceException;
 import ua.ellka.touragency.exception.NotFoundServiceException;
 import ua.ellka.touragency.exception.ServiceException;
+import ua.ellka.touragency.index.CountryDictionary;
+import ua.ellka.touragency.index.FuzzyNameIndex;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
+import ua.ellka.touragency.index.TourSeatCounters;
 import ua.ellka.touragency.mapper.TourMapper;
-import ua.ellka.touragency.model.Booking;
 import ua.ellka.touragency.model.Country;
 import ua.ellka.touragency.model.Guide;
 import ua.ellka.touragency.model.Tour;
-import ua.ellka.touragency.repo.BookingRepo;
 import ua.ellka.touragency.repo.CountryRepo;
 import ua.ellka.touragency.repo.GuideRepo;
 import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.repo.TourSpecifications;
+import ua.ellka.touragency.util.CursorUtil;
+import ua.ellka.touragency.util.TransactionUtil;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TourServiceImpl implements TourService {
+    private static final int POPULAR_TOURS_LIMIT = 5;
+    private static final int SEARCH_DEFAULT_LIMIT = 20;
+    private static final int SEARCH_MAX_LIMIT = 100;
+
+    private static final String FACET_COUNTRY = "country";
+    private static final String FACET_REGION = "region";
+    private static final String FACET_GUIDE_LANGUAGE = "guideLanguage";
 
     private final TourMapper tourMapper;
     private final TourRepo tourRepo;
-    private final BookingRepo bookingRepo;
     private final GuideRepo guideRepo;
     private final CountryRepo countryRepo;
+    private final TourCatalogCache tourCatalogCache;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final TourSeatCounters tourSeatCounters;
+    private final CountryDictionary countryDictionary;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourDateIndex tourDateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FuzzyNameIndex fuzzyNameIndex;
 
     //1
     @Override
     public TourDTO createTour(TourDTO tourDTO) {
+        validateCapacity(tourDTO.getCapacity());
+
         // 1. Перевірка унікальності імені туру
         tourRepo.findByName(tourDTO.getName())
                 .ifPresent(exists -> {
                     throw new ExistingServiceException("Tour name already exists");
                 });
 
-        // 2. Логіка Upsert для Країни
+        // 2. Логіка Upsert для Країни (словник у пам'яті, на промах - атомарний upsert у БД)
         Country country;
         if (tourDTO.getCountryName() != null && !tourDTO.getCountryName().isBlank()) {
-
-            Optional<Country> existingCountry = countryRepo.findByNameAndRegion(tourDTO.getCountryName(), tourDTO.getCountryRegion());
-
-            if (existingCountry.isEmpty()) {
-                // Країна не знайдена -> Створюємо нову країну
-                country = new Country();
-                country.setName(tourDTO.getCountryName());
-                country.setRegion(tourDTO.getCountryRegion() != null ? tourDTO.getCountryRegion() : "Unknown Region");
-                country = countryRepo.save(country);
-            } else {
-                country = existingCountry.get();
-            }
+            country = countryDictionary.resolve(tourDTO.getCountryName(), tourDTO.getCountryRegion());
         } else {
             // Якщо назва не передана
             throw new NotFoundServiceException("Country name is required.");
@@ -74,11 +103,24 @@ public class TourServiceImpl implements TourService {
             tour.setCountry(country);
             tour.setGuide(guide);
             tour.setImageUrl(tourDTO.getImageUrl());
+            tour.setAvailableSeats(tour.getCapacity());
 
             Tour save = tourRepo.save(tour);
+            // Під Idempotency-Key створення йде в зовнішній транзакції: до її коміту нова ETag
+            // дозволила б паралельному GET закешувати стару сторінку
+            Long tourId = save.getId();
+            Long guideId = guide.getId();
+            String countryName = country.getName();
+            TransactionUtil.afterCommit(() -> tourCatalogCache.evictTour(tourId, guideId, countryName));
+            tourSearchIndex.tourSaved(save);
+            tourDateIndex.tourSaved(save);
+            suggestionIndex.tourSaved(save);
 
             // Повертаємо DTO з повною інформацією
             return tourMapper.tourToTourDTO(save);
+        } catch (DataIntegrityViolationException e) {
+            // Паралельне створення туру з тим самим ім'ям відсікає унікальний індекс
+            throw new ExistingServiceException("Tour name already exists");
         }catch (DataAccessException e) {
             throw new ServiceException("Error while creating tour: " + e.getMessage());
         }
@@ -86,23 +128,30 @@ public class TourServiceImpl implements TourService {
 
     //2
     @Override
-    public List<TourDTO> getAllTours() {
-        if (tourRepo.count() == 0) {
+    @Cacheable(cacheNames = TourCatalogCache.TOUR_PAGES, key = "#after + ':' + #limit")
+    public PageDTO<TourDTO> getAllTours(String after, Integer limit) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<TourDTO> tours = tourRepo.findTourDTOsAfter(afterId, CursorUtil.probe(pageSize));
+        if (tours.isEmpty() && after == null) {
             throw new NotFoundServiceException("Tours not found");
         }
 
-        return tourRepo.findAll().stream()
-                .map(tourMapper::tourToTourDTO)
-                .toList();
+        return CursorUtil.toPage(tours, pageSize, TourDTO::getId, Function.identity());
     }
 
     //3
     @Override
     @PreAuthorize("@accessChecker.isTourOwner(#id) || hasRole('ROLE_ADMIN')")
+    // Одна транзакція: якщо гіда не знайдено або версія застаріла, зміна місткості відкочується разом з рештою
+    @Transactional
     public TourDTO updateTour(Long id, TourDTO tourDTO) {
         // 1. Знаходимо існуючий тур для оновлення
         Tour updateTour = tourRepo.findById(id)
                 .orElseThrow(() -> new NotFoundServiceException("Tour not found with ID: " + id));
+        Long previousGuideId = updateTour.getGuide().getId();
+        String previousCountryName = updateTour.getCountry().getName();
 
         // 2. Перевірка унікальності імені туру (якщо ім'я змінилося)
         tourRepo.findByName(tourDTO.getName())
@@ -116,26 +165,26 @@ public class TourServiceImpl implements TourService {
 
         // Перевіряємо, чи була передана назва країни (з фронтенду)
         if (tourDTO.getCountryName() != null && !tourDTO.getCountryName().isBlank()) {
-
-            // Спробуємо знайти країну за назвою та регіоном
-            Optional<Country> existingCountry = countryRepo.findByNameAndRegion(tourDTO.getCountryName(), tourDTO.getCountryRegion());
-
-            if (existingCountry.isEmpty()) {
-                // Країна не знайдена -> Створюємо нову країну
-                country = new Country();
-                country.setName(tourDTO.getCountryName());
-                country.setRegion(tourDTO.getCountryRegion() != null ? tourDTO.getCountryRegion() : "Unknown Region");
-                country = countryRepo.save(country);
-            } else {
-                // Країна знайдена -> Використовуємо існуючий об'єкт
-                country = existingCountry.get();
-            }
+            country = countryDictionary.resolve(tourDTO.getCountryName(), tourDTO.getCountryRegion());
         } else {
             // Якщо назва країни не передана, залишаємо ту, що була
             country = updateTour.getCountry();
         }
 
-        // 4. Перевірка Гіда (ID має бути в DTO, якщо це зміна гіда)
+        // 4. Зміна місткості окремим умовним UPDATE, щоб не перетерти місця, списані паралельними бронюваннями
+        Integer capacity = tourDTO.getCapacity();
+        if (capacity != null && !capacity.equals(updateTour.getCapacity())) {
+            validateCapacity(capacity);
+            int updated = updateTour.getCapacity() == null
+                    ? tourRepo.limitCapacity(id, capacity)
+                    : tourRepo.changeCapacity(id, capacity);
+            if (updated == 0) {
+                throw new BadRequestServiceException("Capacity cannot be lower than the number of booked seats");
+            }
+            TransactionUtil.afterCommit(() -> tourSeatCounters.invalidate(id));
+        }
+
+        // 5. Перевірка Гіда (ID має бути в DTO, якщо це зміна гіда)
         Guide guide;
         if (tourDTO.getGuideId() != null) {
             guide = guideRepo.findById(tourDTO.getGuideId())
@@ -146,10 +195,10 @@ public class TourServiceImpl implements TourService {
         }
 
         try {
-            // 5. Мапінг простих полів DTO до моделі Tour
+            // 6. Мапінг простих полів DTO до моделі Tour
             Tour mappedTour = tourMapper.tourDTOToTour(tourDTO);
 
-            // 6. Присвоєння оновлених/знайдених об'єктів
+            // 7. Присвоєння оновлених/знайдених об'єктів
             updateTour.setName(mappedTour.getName());
             updateTour.setPrice(mappedTour.getPrice());
             updateTour.setStartDate(mappedTour.getStartDate());
@@ -162,7 +211,18 @@ public class TourServiceImpl implements TourService {
             updateTour.setImageUrl(tourDTO.getImageUrl());
 
             Tour save = tourRepo.save(updateTour);
-            return tourMapper.tourToTourDTO(save);
+            Long guideId = guide.getId();
+            String countryName = country.getName();
+            TransactionUtil.afterCommit(() -> {
+                tourCatalogCache.evictTour(id, previousGuideId, previousCountryName);
+                tourCatalogCache.evictTour(id, guideId, countryName);
+            });
+            tourSearchIndex.tourSaved(save);
+            tourDateIndex.tourSaved(save);
+            suggestionIndex.tourSaved(save);
+            // Місця в завантаженій сутності могли застаріти, тому відповідь читаємо проєкцією
+            return tourRepo.findTourDTOById(id)
+                    .orElseGet(() -> tourMapper.tourToTourDTO(save));
         }catch (DataAccessException e) {
             throw new ServiceException("Error while updating tour: " + e.getMessage());
         }
@@ -177,6 +237,16 @@ public class TourServiceImpl implements TourService {
 
         try {
             tourRepo.delete(existingTour);
+            tourPopularityIndex.tourDeleted(id);
+            tourSearchIndex.tourDeleted(id);
+            tourDateIndex.tourDeleted(id);
+            suggestionIndex.tourDeleted(id);
+            Long guideId = existingTour.getGuide().getId();
+            String countryName = existingTour.getCountry().getName();
+            TransactionUtil.afterCommit(() -> {
+                tourSeatCounters.invalidate(id);
+                tourCatalogCache.evictTour(id, guideId, countryName);
+            });
             return tourMapper.tourToTourDTO(existingTour);
         } catch (DataAccessException e) {
             throw new ServiceException("Failed to delete tour due to database error");
@@ -185,22 +255,33 @@ public class TourServiceImpl implements TourService {
 
     //20
     @Override
+    // Кешується лише точний збіг: інвалідація йде за точною назвою країни
+    @Cacheable(cacheNames = TourCatalogCache.TOURS_BY_COUNTRY, key = "#countryName",
+            unless = "!#result[0].countryName.equals(#countryName)")
     public List<TourDTO> getToursByCountryName(String countryName) {
         List<Country> byName = countryRepo.findByName(countryName);
         if (byName.isEmpty()) {
-            throw new NotFoundServiceException("Country not found with name: " + countryName);
+            // Назва з помилкою: тури найближчих за написанням країн
+            List<Long> countryIds = fuzzyNameIndex.findCountries(countryName);
+            if (countryIds.isEmpty()) {
+                throw new NotFoundServiceException("Country not found with name: " + countryName);
+            }
+
+            List<TourDTO> toursByCountries = tourRepo.findTourDTOsByCountryIdIn(countryIds);
+            if (toursByCountries.isEmpty()) {
+                throw new NotFoundServiceException("No Tours found for country name " + countryName);
+            }
+            return toursByCountries;
         }
 
         String name = byName.get(0).getName();
 
-        List<Tour> toursByCountryName = tourRepo.findToursByCountryName(name);
+        List<TourDTO> toursByCountryName = tourRepo.findTourDTOsByCountryName(name);
         if (toursByCountryName.isEmpty()) {
             throw new NotFoundServiceException("No Tours found for country name " + name);
         }
 
-        return toursByCountryName.stream()
-                .map(tourMapper::tourToTourDTO)
-                .toList();
+        return toursByCountryName;
     }
 
     //21
@@ -210,95 +291,220 @@ public class TourServiceImpl implements TourService {
         // 1. Шукаємо всіх гідів, які відповідають імені (нечутливо до регістру)
         List<Guide> matchingGuides = guideRepo.findByNameContainingIgnoreCase(guideName);
 
-        if (matchingGuides.isEmpty()) {
+        // 2. Збираємо ID всіх знайдених гідів, а якщо в імені помилка - найближчих за написанням
+        List<Long> guideIds = matchingGuides.isEmpty()
+                ? fuzzyNameIndex.findGuides(guideName)
+                : matchingGuides.stream()
+                        .map(Guide::getId)
+                        .toList();
+
+        if (guideIds.isEmpty()) {
             throw new NotFoundServiceException("Guide not found with name: " + guideName);
         }
 
-        // 2. Збираємо ID всіх знайдених гідів
-        List<Long> guideIds = matchingGuides.stream()
-                .map(Guide::getId)
-                .toList();
-
-        // 3. Шукаємо тури, створені цими гідами (потрібен метод findByGuideIdIn у TourRepo!)
-        List<Tour> toursByGuides = tourRepo.findByGuideIdIn(guideIds);
+        // 3. Шукаємо тури, створені цими гідами
+        List<TourDTO> toursByGuides = tourRepo.findTourDTOsByGuideIdIn(guideIds);
 
         if (toursByGuides.isEmpty()) {
             // Якщо гідів знайшли, але вони не створили турів
             throw new NotFoundServiceException("No Tours found for guide name " + guideName);
         }
 
-        return toursByGuides.stream()
-                .map(tourMapper::tourToTourDTO)
-                .toList();
+        return toursByGuides;
     }
 
     @Override
+    @Cacheable(cacheNames = TourCatalogCache.TOURS_BY_GUIDE, key = "#guideId")
     public List<TourDTO> getToursByGuideId(Long guideId) {
         // Перевірка існування гіда (якщо потрібно)
         guideRepo.findById(guideId)
                 .orElseThrow(() -> new NotFoundServiceException("Guide not found with id: " + guideId));
 
         // TourRepo повинен мати метод для пошуку за guideId
-        List<Tour> toursByGuideId = tourRepo.findToursByGuideId(guideId); // Припускаємо, що метод існує
+        List<TourDTO> toursByGuideId = tourRepo.findTourDTOsByGuideId(guideId);
 
         if (toursByGuideId.isEmpty()) {
             // Якщо турів немає, кидаємо 404, який Dashboard обробить як "No tours created"
             throw new NotFoundServiceException("No Tours found for guide id " + guideId);
         }
 
-        return toursByGuideId.stream()
-                .map(tourMapper::tourToTourDTO)
-                .toList();
+        return toursByGuideId;
     }
 
     //24
     @Override
     public List<TourDTO> getMostPopularTours() {
-        if (tourRepo.count() == 0) {
-            throw new NotFoundServiceException("Tours not found");
+        List<TourDTO> popularTours;
+
+        if (tourPopularityIndex.isReady()) {
+            List<Long> popularTourIds = tourPopularityIndex.topTourIds(POPULAR_TOURS_LIMIT);
+
+            // Один запит за первинними ключами, порядок популярності відновлюємо з індексу
+            Map<Long, TourDTO> toursById = tourRepo.findTourDTOsByIdIn(popularTourIds).stream()
+                    .collect(Collectors.toMap(TourDTO::getId, Function.identity()));
+
+            popularTours = popularTourIds.stream()
+                    .map(toursById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } else {
+            popularTours = tourRepo.findMostPopularTourDTOs(Limit.of(POPULAR_TOURS_LIMIT));
         }
 
-        if (bookingRepo.count() == 0) {
+        if (popularTours.isEmpty()) {
             throw new NotFoundServiceException("No Bookings found in all tours");
         }
 
-        List<BookingRepo.TourBookingCountResult> results = bookingRepo.findBookingCountsByTour();
-
-        List<Tour> popularTours = results.stream()
-                .sorted((result1, result2) ->
-                        Long.compare(result2.getBookingCount(), result1.getBookingCount()))
-                .map(result ->
-                        tourRepo.findById(result.getTourId()).orElse(null))
-                .filter(Objects::nonNull)
-                .toList();
-
-        return popularTours.stream()
-                .map(tourMapper::tourToTourDTO)
-                .limit(5)
-                .toList();
+        return popularTours;
     }
 
     //25
     @Override
     @PreAuthorize("@accessChecker.isTourOwner(#id) || hasRole('ADMIN')")
     public BigDecimal getTourProfit(Long id) {
-        Tour tour = tourRepo.findById(id)
+        TourProfitDTO tourProfit = tourRepo.findTourProfit(id)
                 .orElseThrow(() -> new NotFoundServiceException("Tour not found"));
 
-        List<Booking> bookingsForTour = bookingRepo.findBookingsByTourId(id);
-        if (bookingsForTour.isEmpty()) {
+        if (tourProfit.getBookingCount() == 0) {
             throw new NotFoundServiceException("Profit for the tour cannot be determined due to the lack of bookings");
         }
 
-        BigDecimal tourPrice = tour.getPrice();
-        int bookingCount = bookingsForTour.size();
-        return tourPrice.multiply(BigDecimal.valueOf(bookingCount));
+        return tourProfit.getProfit();
+    }
+
+    @Override
+    @PreAuthorize("@accessChecker.isGuideProfileOwner(#guideId) || hasRole('ADMIN')")
+    public List<TourProfitDTO> getTourProfitsByGuideId(Long guideId) {
+        guideRepo.findById(guideId)
+                .orElseThrow(() -> new NotFoundServiceException("Guide not found with id: " + guideId));
+
+        List<TourProfitDTO> tourProfits = tourRepo.findTourProfitsByGuideId(guideId);
+        if (tourProfits.isEmpty()) {
+            throw new NotFoundServiceException("No Tours found for guide id " + guideId);
+        }
+
+        return tourProfits;
     }
 
     @Override
+    @Cacheable(cacheNames = TourCatalogCache.TOUR_BY_ID, key = "#id")
     public TourDTO getTourById(Long id) {
-        Tour tour = tourRepo.findById(id)
+        return tourRepo.findTourDTOById(id)
                 .orElseThrow(() -> new NotFoundServiceException("Tour not found with id: " + id));
-        return tourMapper.tourToTourDTO(tour);
+    }
+
+    // Пошук іде по індексу в пам'яті, з БД лише один запит за первинними ключами знайдених турів
+    @Override
+    public List<TourDTO> searchTours(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestServiceException("Search query is required");
+        }
+        int resultLimit = limit == null || limit <= 0 ? SEARCH_DEFAULT_LIMIT : Math.min(limit, SEARCH_MAX_LIMIT);
+
+        List<Long> tourIds = tourSearchIndex.search(query, resultLimit);
+        Map<Long, TourDTO> toursById = tourIds.isEmpty() ? Map.of() : tourRepo.findTourDTOsByIdIn(tourIds).stream()
+                .collect(Collectors.toMap(TourDTO::getId, Function.identity()));
+
+        List<TourDTO> tours = tourIds.stream()
+                .map(toursById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (tours.isEmpty()) {
+            throw new NotFoundServiceException("No Tours found for query: " + query);
+        }
+
+        return tours;
+    }
+
+    // Перетин періодів шукається в дереві інтервалів, з БД - лише сторінка турів за первинними ключами
+    @Override
+    public PageDTO<TourDTO> getAvailableTours(LocalDate from, LocalDate to, String after, Integer limit) {
+        if (from == null || to == null) {
+            throw new BadRequestServiceException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestServiceException("End date must not be before start date");
+        }
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        if (!tourDateIndex.isReady()) {
+            List<TourDTO> tours = tourRepo.findTourDTOsOverlapping(from, to, afterId, CursorUtil.probe(pageSize));
+            return CursorUtil.toPage(tours, pageSize, TourDTO::getId, Function.identity());
+        }
+
+        List<Long> tourIds = tourDateIndex.findOverlapping(from, to, afterId, pageSize + 1);
+        PageDTO<Long> idPage = CursorUtil.toPage(tourIds, pageSize, Function.identity(), Function.identity());
+
+        Map<Long, TourDTO> toursById = idPage.getItems().isEmpty() ? Map.of()
+                : tourRepo.findTourDTOsByIdIn(idPage.getItems()).stream()
+                        .collect(Collectors.toMap(TourDTO::getId, Function.identity()));
+        List<TourDTO> tours = idPage.getItems().stream()
+                .map(toursById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageDTO<>(tours, idPage.getNext());
+    }
+
+    // Фасети рахуються з усіма умовами, крім умови власного виміру: так видно, скільки турів
+    // дасть вибір іншого значення в цьому вимірі
+    @Override
+    public TourFilterResultDTO filterTours(TourFilterDTO filter, String after, Integer limit) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new BadRequestServiceException("Min price must not be greater than max price");
+        }
+        if (filter.getStartFrom() != null && filter.getEndTo() != null && filter.getEndTo().isBefore(filter.getStartFrom())) {
+            throw new BadRequestServiceException("End date must not be before start date");
+        }
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        Specification<Tour> price = TourSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice());
+        Specification<Tour> dates = TourSpecifications.withinDates(filter.getStartFrom(), filter.getEndTo());
+        Specification<Tour> country = TourSpecifications.attributeEquals(TourSpecifications.COUNTRY_NAME, filter.getCountryName());
+        Specification<Tour> region = TourSpecifications.attributeEquals(TourSpecifications.COUNTRY_REGION, filter.getRegion());
+        Specification<Tour> language = TourSpecifications.attributeEquals(TourSpecifications.GUIDE_LANGUAGE, filter.getGuideLanguage());
+
+        Specification<Tour> all = Specification.allOf(price, dates, country, region, language);
+        List<Tour> tours = tourRepo.findBy(all.and(TourSpecifications.idGreaterThan(afterId)), query -> query
+                .sortBy(Sort.by("id"))
+                .limit(pageSize + 1)
+                .project("country", "guide")
+                .all());
+        PageDTO<TourDTO> page = CursorUtil.toPage(tours, pageSize, Tour::getId, tourMapper::tourToTourDTO);
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(FACET_COUNTRY, tourRepo.countByAttribute(TourSpecifications.COUNTRY_NAME,
+                Specification.allOf(price, dates, region, language)));
+        facets.put(FACET_REGION, tourRepo.countByAttribute(TourSpecifications.COUNTRY_REGION,
+                Specification.allOf(price, dates, country, language)));
+        facets.put(FACET_GUIDE_LANGUAGE, tourRepo.countByAttribute(TourSpecifications.GUIDE_LANGUAGE,
+                Specification.allOf(price, dates, country, region)));
+
+        return new TourFilterResultDTO(page.getItems(), page.getNext(), facets);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return tourCatalogCache.getCatalogVersion();
+    }
+
+    @Override
+    public long getTourVersion(Long id) {
+        return tourCatalogCache.getTourVersion(id);
+    }
+
+    // Список популярних залежить і від самих турів, і від рейтингу бронювань
+    @Override
+    public String getPopularToursVersion() {
+        return tourCatalogCache.getCatalogVersion() + "-" + tourPopularityIndex.getVersion();
+    }
+
+    private void validateCapacity(Integer capacity) {
+        if (capacity != null && capacity < 0) {
+            throw new BadRequestServiceException("Capacity must not be negative");
+        }
     }
 }
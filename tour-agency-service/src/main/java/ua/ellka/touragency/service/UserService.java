@@ -1,11 +1,10 @@
 package ua.ellka.touragency.service;
 
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.UserDTO;
 
-import java.util.List;
-
 public interface UserService {
-    List<UserDTO> getAllUser();
+    PageDTO<UserDTO> getAllUser(String after, Integer limit);
     UserDTO getUserById(Long id);
     UserDTO deleteUser(Long userId);
 }
@@ -1,16 +1,30 @@
 package ua.ellka.touragency.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.UserDTO;
 import ua.ellka.touragency.exception.NotFoundServiceException;
+import ua.ellka.touragency.index.FuzzyNameIndex;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
 import ua.ellka.touragency.mapper.UserMapper;
+import ua.ellka.touragency.model.Guide;
 import ua.ellka.touragency.model.User;
 import ua.ellka.touragency.model.security.TourAgencyUserDetails;
+import ua.ellka.touragency.repo.ClientRepo;
 import ua.ellka.touragency.repo.UserRepo;
+import ua.ellka.touragency.reservation.ClientSeatRelease;
+import ua.ellka.touragency.util.CursorUtil;
+import ua.ellka.touragency.util.TransactionUtil;
 
 import java.util.List;
 
@@ -19,17 +33,27 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepo userRepo;
+    private final ClientRepo clientRepo;
+    private final ClientSeatRelease clientSeatRelease;
+    private final TourCatalogCache tourCatalogCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TourPopularityIndex tourPopularityIndex;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourDateIndex tourDateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FuzzyNameIndex fuzzyNameIndex;
 
     @Override
-    public List<UserDTO> getAllUser() {
-        List<User> allUsers = userRepo.findAll();
-        if (allUsers.isEmpty()) {
+    public PageDTO<UserDTO> getAllUser(String after, Integer limit) {
+        long afterId = CursorUtil.decode(after);
+        int pageSize = CursorUtil.normalizeLimit(limit);
+
+        List<User> users = userRepo.findByIdGreaterThanOrderByIdAsc(afterId, CursorUtil.probe(pageSize));
+        if (users.isEmpty() && after == null) {
             throw new NotFoundServiceException("User not found");
         }
 
-        return allUsers.stream()
-                .map(userMapper::userToUserDTO)
-                .toList();
+        return CursorUtil.toPage(users, pageSize, User::getId, userMapper::userToUserDTO);
     }
 
     @Override
@@ -59,8 +83,27 @@ public class UserServiceImpl implements UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new NotFoundServiceException("User not found"));
 
+        // Разом з користувачем каскадно зникає його клієнт з бронюваннями
+        clientRepo.findByUserId(userId)
+                .ifPresent(client -> clientSeatRelease.releaseAll(client.getId()));
 
         userRepo.deleteById(userId);
+        // Кеші скидаємо після коміту: до нього паралельне читання знову поклало б у них дані до видалення
+        TransactionUtil.afterCommit(() -> {
+            // Видалення гіда каскадно видаляє його тури
+            tourCatalogCache.evictAll();
+            // ON DELETE CASCADE спрацьовує в БД в обхід Hibernate, тому кеш другого рівня чистимо вручну.
+            // Мітки часу таблиці guide теж не змінюються, тож кешований GuideRepo.findByUserId
+            // і далі повертав би id видаленого гіда - скидаємо й результати запитів
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            cache.evict(Guide.class);
+            cache.evictDefaultQueryRegion();
+        });
+        tourPopularityIndex.rebuildAfterCommit();
+        tourSearchIndex.rebuildAfterCommit();
+        tourDateIndex.rebuildAfterCommit();
+        suggestionIndex.reloadAfterCommit();
+        fuzzyNameIndex.reloadAfterCommit();
 
         return userMapper.userToUserDTO(user);
     }
@@ -0,0 +1,67 @@
+package ua.ellka.touragency.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Мінімальний CSV (RFC 4180): коми, лапки, подвоєні лапки і переноси рядків всередині поля.
+// Запис, що переходить на наступний рядок, збирається викликачем, поки isUnterminated повертає true
+public final class CsvUtil {
+    private CsvUtil() {
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Непарна кількість лапок означає, що поле в лапках ще не закрите: подвоєні лапки парність не змінюють
+    public static boolean isUnterminated(String text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
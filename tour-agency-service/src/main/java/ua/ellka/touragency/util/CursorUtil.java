@@ -0,0 +1,70 @@
+package ua.ellka.touragency.util;
+
+import org.springframework.data.domain.Limit;
+import ua.ellka.touragency.dto.PageDTO;
+import ua.ellka.touragency.exception.BadRequestServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Keyset-пагінація: курсор - це закодований id останнього рядка попередньої сторінки,
+// наступна сторінка читається як id > cursor ORDER BY id LIMIT n + 1 (без OFFSET і COUNT)
+public final class CursorUtil {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String PREFIX = "id:";
+
+    private CursorUtil() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestServiceException("Invalid page cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestServiceException("Invalid page cursor");
+        }
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestServiceException("Page limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Запитуємо на один рядок більше, щоб дізнатися, чи є наступна сторінка
+    public static Limit probe(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    public static <E, D> PageDTO<D> toPage(List<E> rows, int limit, Function<E, Long> idOf, Function<E, D> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        List<D> items = pageRows.stream()
+                .map(mapper)
+                .toList();
+
+        String next = hasNext ? encode(idOf.apply(pageRows.get(limit - 1))) : null;
+        return new PageDTO<>(items, next);
+    }
+}
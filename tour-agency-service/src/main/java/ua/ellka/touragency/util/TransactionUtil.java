@@ -0,0 +1,53 @@
+package ua.ellka.touragency.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionUtil {
+    private TransactionUtil() {
+    }
+
+    // Дія виконується лише після успішного коміту поточної транзакції (або одразу, якщо її немає),
+    // щоб відкат не залишав у пам'яті змін, яких немає в БД
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Виконується після завершення транзакції незалежно від результату (або одразу, якщо її немає),
+    // наприклад щоб звільнити блокування, утримане до кінця транзакції
+    public static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Компенсація для змін у пам'яті, зроблених до коміту: виконується лише при відкаті транзакції
+    public static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
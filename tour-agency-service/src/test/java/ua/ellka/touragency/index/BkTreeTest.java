@@ -0,0 +1,95 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+    @Test
+    void distanceIsLevenshtein() {
+        assertEquals(0, BkTree.distance("paris", "paris"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(2, BkTree.distance("flaw", "lawn"));
+        assertEquals(3, BkTree.distance("", "abc"));
+        assertEquals(3, BkTree.distance("abc", ""));
+        assertEquals(2, BkTree.distance("italy", "itlay"));
+    }
+
+    @Test
+    void duplicateTermsAreNotAdded() {
+        BkTree tree = new BkTree();
+
+        assertTrue(tree.add("rome"));
+        assertTrue(tree.add("roma"));
+        assertFalse(tree.add("rome"));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void searchReportsTermsWithinRadiusWithTheirDistance() {
+        BkTree tree = new BkTree();
+        List.of("germany", "hungary", "norway", "romania", "germania", "normandy").forEach(tree::add);
+
+        assertEquals(Map.of("germany", 0), search(tree, "germany", 0));
+        assertEquals(Map.of("germany", 1), search(tree, "germny", 1));
+        assertEquals(Map.of("germany", 1, "germania", 1), search(tree, "germani", 1));
+        assertEquals(Map.of("norway", 1, "normandy", 2), search(tree, "normay", 2));
+        assertEquals(Map.of(), search(tree, "japan", 2));
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        assertEquals(Map.of(), search(new BkTree(), "anything", 3));
+    }
+
+    // Відсікання гілок за нерівністю трикутника не має губити жодного терму в межах допуску
+    @Test
+    void searchMatchesBruteForceForEveryRadius() {
+        Random random = new Random(42);
+        Set<String> dictionary = new LinkedHashSet<>();
+        while (dictionary.size() < 500) {
+            dictionary.add(randomWord(random));
+        }
+        BkTree tree = new BkTree();
+        dictionary.forEach(tree::add);
+
+        for (int i = 0; i < 50; i++) {
+            String query = randomWord(random);
+            for (int radius = 0; radius <= 3; radius++) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (String term : dictionary) {
+                    int distance = BkTree.distance(query, term);
+                    if (distance <= radius) {
+                        expected.put(term, distance);
+                    }
+                }
+                assertEquals(expected, search(tree, query, radius), query + " within " + radius);
+            }
+        }
+    }
+
+    private static Map<String, Integer> search(BkTree tree, String query, int radius) {
+        Map<String, Integer> found = new HashMap<>();
+        tree.search(query, radius, (term, distance) -> assertEquals(null, found.put(term, distance)));
+        return found;
+    }
+
+    // Маленький алфавіт, щоб слова часто були близькими
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(5);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+}
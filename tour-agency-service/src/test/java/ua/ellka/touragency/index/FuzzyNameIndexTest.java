@@ -0,0 +1,58 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.repo.CountryRepo;
+import ua.ellka.touragency.repo.GuideRepo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class FuzzyNameIndexTest {
+    private FuzzyNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyNameIndex(mock(GuideRepo.class), mock(CountryRepo.class));
+        index.guideSaved(1L, null, "Ivan Petrenko");
+        index.guideSaved(2L, null, "Ivan Shevchenko");
+        index.guideSaved(3L, null, "Olena Petrenko");
+        index.guideSaved(4L, null, "Maria Kovalenko");
+    }
+
+    // Повна назва з помилкою шукається як ціле, слово - серед слів назв
+    @Test
+    void phraseAndSingleWordWithTypos() {
+        assertEquals(List.of(1L), index.findGuides("Ivan Petrneko"));
+        assertEquals(List.of(1L, 3L), index.findGuides("petrneko"));
+        assertEquals(List.of(4L), index.findGuides("kovalneko"));
+        assertEquals(List.of(), index.findGuides("smith"));
+    }
+
+    // Переставлені слова чи зайве слово: повна назва не збігається, тому кожне слово шукається окремо
+    // і виграє гід, що збігся з більшістю слів
+    @Test
+    void multiWordQueryMatchesEachTerm() {
+        assertEquals(List.of(1L), index.findGuides("petrneko ivan"));
+        assertEquals(List.of(3L), index.findGuides("Petrenko Olena Kyiv"));
+        assertEquals(List.of(2L), index.findGuides("shevhcenko, ivna"));
+    }
+
+    // Серед гідів з однаковою кількістю збігів слів перемагає менша сума відстаней
+    @Test
+    void equalTermCountPrefersSmallerDistance() {
+        assertEquals(List.of(1L, 3L), index.findGuides("petrenko lviv"));
+        assertEquals(List.of(1L), index.findGuides("ivan petrenkko lviv"));
+    }
+
+    @Test
+    void removedGuideIsNotFound() {
+        index.guideDeleted(1L, "Ivan Petrenko");
+        index.guideSaved(3L, "Olena Petrenko", "Olena Bondarenko");
+
+        assertEquals(List.of(2L), index.findGuides("petrenko ivan"));
+        assertEquals(List.of(3L), index.findGuides("bondarneko olena"));
+    }
+}
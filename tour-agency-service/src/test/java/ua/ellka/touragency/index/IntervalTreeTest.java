@@ -0,0 +1,130 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntervalTreeTest {
+    @Test
+    void boundsAreInclusive() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 10, 20);
+
+        assertEquals(List.of(1L), find(tree, 20, 30));
+        assertEquals(List.of(1L), find(tree, 0, 10));
+        assertEquals(List.of(1L), find(tree, 12, 15));
+        assertEquals(List.of(), find(tree, 21, 30));
+        assertEquals(List.of(), find(tree, 0, 9));
+    }
+
+    @Test
+    void putReplacesPreviousInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 10, 20);
+        tree.put(1, 40, 50);
+
+        assertEquals(1, tree.size());
+        assertEquals(List.of(), find(tree, 10, 20));
+        assertEquals(List.of(1L), find(tree, 45, 45));
+    }
+
+    // Після видалення найдовшого інтервалу maxEnd предків має зменшитися, а короткі сусіди - лишитися
+    @Test
+    void removingLongestIntervalKeepsNeighbours() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 0, 1000);
+        for (long id = 2; id <= 50; id++) {
+            tree.put(id, id * 10, id * 10 + 5);
+        }
+
+        tree.remove(1);
+        tree.remove(1);
+
+        assertEquals(49, tree.size());
+        assertEquals(List.of(), find(tree, 506, 509));
+        assertEquals(List.of(20L, 21L), find(tree, 205, 210));
+    }
+
+    // Випадкові вставки, заміни і видалення: обертання і злиття treap мають підтримувати maxEnd,
+    // інакше пошук відкине піддерево з потрібним інтервалом
+    @Test
+    void matchesBruteForceUnderRandomChanges() {
+        Random random = new Random(11);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> intervals = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                tree.remove(id);
+                intervals.remove(id);
+            } else {
+                long start = random.nextInt(1000);
+                long end = start + (random.nextInt(10) == 0 ? random.nextInt(500) : random.nextInt(20));
+                tree.put(id, start, end);
+                intervals.put(id, new long[]{start, end});
+            }
+
+            if (step % 100 == 0) {
+                assertEquals(intervals.size(), tree.size());
+                for (int query = 0; query < 20; query++) {
+                    long from = random.nextInt(1100);
+                    long to = from + random.nextInt(50);
+                    assertEquals(bruteForce(intervals, from, to), find(tree, from, to).stream().sorted().toList(),
+                            "[" + from + ", " + to + "] at step " + step);
+                }
+            }
+        }
+    }
+
+    // Сторінки за id: кожна бере limit найменших id після курсора, разом - увесь перетин без повторів
+    @Test
+    void pagesWalkOverlapsInIdOrder() {
+        Random random = new Random(5);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> intervals = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            long start = random.nextInt(365);
+            long end = start + random.nextInt(30);
+            tree.put(id, start, end);
+            intervals.put(id, new long[]{start, end});
+        }
+
+        List<Long> expected = bruteForce(intervals, 100, 160);
+        List<Long> walked = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> page = tree.findOverlapping(100, 160, cursor, 7);
+            assertEquals(expected.stream().filter(id -> id > cursor).limit(7).toList(), page);
+            walked.addAll(page);
+            if (page.size() < 7) {
+                break;
+            }
+            afterId = page.get(page.size() - 1);
+        }
+
+        assertEquals(expected, walked);
+        assertEquals(List.of(), tree.findOverlapping(100, 160, expected.get(expected.size() - 1), 7));
+    }
+
+    private static List<Long> find(IntervalTree tree, long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        tree.findOverlapping(from, to, ids::add);
+        return ids;
+    }
+
+    private static List<Long> bruteForce(Map<Long, long[]> intervals, long from, long to) {
+        return intervals.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] <= to && entry.getValue()[1] >= from)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedSeatCounterTest {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 1_000;
+
+    @Test
+    void concurrentAcquiresNeverOversell() throws Exception {
+        StripedSeatCounter counter = new StripedSeatCounter(100);
+
+        int acquired = race(THREADS, () -> {
+            int seats = 0;
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                if (counter.tryAcquire()) {
+                    seats++;
+                }
+            }
+            return seats;
+        });
+
+        assertEquals(100, acquired);
+        assertFalse(counter.tryAcquire());
+    }
+
+    // Кожен потік займає і повертає місця навперемінно, в кінці всі місця мають бути на місці
+    @Test
+    void concurrentAcquireAndReleaseKeepTotal() throws Exception {
+        StripedSeatCounter counter = new StripedSeatCounter(10);
+
+        race(THREADS, () -> {
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                if (counter.tryAcquire()) {
+                    counter.release();
+                }
+            }
+            return 0;
+        });
+
+        int remaining = 0;
+        while (counter.tryAcquire()) {
+            remaining++;
+        }
+        assertEquals(10, remaining);
+    }
+
+    // Відмова означає, що місць немає в жодній комірці, навіть якщо "своя" комірка потоку порожня
+    @Test
+    void acquiresSeatFromAnyStripe() {
+        StripedSeatCounter counter = new StripedSeatCounter(1);
+
+        assertTrue(counter.tryAcquire());
+        assertFalse(counter.tryAcquire());
+
+        counter.release();
+        assertTrue(counter.tryAcquire());
+    }
+
+    @Test
+    void noSeatsRejectsImmediately() {
+        assertFalse(new StripedSeatCounter(0).tryAcquire());
+        assertFalse(new StripedSeatCounter(-5).tryAcquire());
+    }
+
+    @Test
+    void unlimitedAlwaysAcquires() {
+        for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+            assertTrue(StripedSeatCounter.UNLIMITED.tryAcquire());
+        }
+    }
+
+    // Запускає задачу в кількох потоках одночасно і повертає суму їхніх результатів
+    static int race(int threads, Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
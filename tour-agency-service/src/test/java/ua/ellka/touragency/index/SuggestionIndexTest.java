@@ -0,0 +1,271 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.dto.SuggestionDTO;
+import ua.ellka.touragency.dto.SuggestionType;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTest {
+    private final List<TourRepo.TourSearchFieldsResult> tours = new ArrayList<>();
+    private final Map<Long, Long> bookingCounts = new HashMap<>();
+    private TourRepo tourRepo;
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        tourRepo = mock(TourRepo.class);
+        TourPopularityIndex tourPopularityIndex = mock(TourPopularityIndex.class);
+        when(tourRepo.findTourSearchFields()).thenReturn(tours);
+        when(tourPopularityIndex.bookingCounts()).thenReturn(bookingCounts);
+        index = new SuggestionIndex(tourRepo, tourPopularityIndex);
+    }
+
+    // Верхня межа діапазону: префікс не захоплює сусідні ключі, що відрізняються далі
+    @Test
+    void prefixRangeStopsAtNextKey() {
+        tour(1L, "Paris Lights", 3);
+        tour(2L, "Parma Food", 5);
+        tour(3L, "Pass Hike", 1);
+        index.rebuild();
+
+        assertEquals(List.of("Parma Food", "Paris Lights"), names("par"));
+        assertEquals(List.of("Paris Lights"), names("pari"));
+        assertEquals(List.of("Pass Hike"), names("pas"));
+        assertEquals(List.of(), names("parz"));
+    }
+
+    @Test
+    void wholeKeyIsItsOwnPrefix() {
+        tour(1L, "Paris Lights", 0);
+        index.rebuild();
+
+        assertEquals(List.of("Paris Lights"), names("paris lights"));
+        assertEquals(List.of("Paris Lights"), names("Paris, Lights!"));
+        assertEquals(List.of(), names("paris lightsx"));
+    }
+
+    // Ключі починаються з кожного слова, але не з середини слова
+    @Test
+    void matchesStartOfEveryWord() {
+        tour(1L, "Kyiv Old Town", 0);
+        index.rebuild();
+
+        assertEquals(List.of("Kyiv Old Town"), names("old"));
+        assertEquals(List.of("Kyiv Old Town"), names("town"));
+        assertEquals(List.of(), names("own"));
+    }
+
+    // Префікси до першого і після останнього ключа масиву
+    @Test
+    void prefixesOutsideKeyRangeFindNothing() {
+        tour(1L, "Berlin Wall", 0);
+        tour(2L, "Zurich Lake", 0);
+        index.rebuild();
+
+        assertEquals(List.of(), names("aaa"));
+        assertEquals(List.of(), names("zzz"));
+        assertEquals(List.of("Zurich Lake"), names("zur"));
+        assertEquals(List.of("Berlin Wall"), names("ber"));
+    }
+
+    // Назва з повтореним словом дає кілька ключів у діапазоні, але одну підказку
+    @Test
+    void repeatedWordYieldsOneSuggestion() {
+        tour(1L, "Lake Lake Tour", 0);
+        index.rebuild();
+
+        assertEquals(List.of("Lake Lake Tour"), names("lake"));
+    }
+
+    @Test
+    void limitKeepsHeaviestSuggestions() {
+        for (long id = 1; id <= 20; id++) {
+            tour(id, "Safari " + id, id);
+        }
+        index.rebuild();
+
+        assertEquals(List.of("Safari 20", "Safari 19", "Safari 18"), index.suggest("safari", 3).stream()
+                .filter(suggestion -> suggestion.getType() == SuggestionType.TOUR)
+                .map(SuggestionDTO::getName)
+                .toList());
+    }
+
+    // Короткі префікси беруться з заздалегідь порахованого top-N, довші - з діапазону ключів;
+    // обидва шляхи мають збігатися з повним перебором
+    @Test
+    void suggestionsMatchBruteForce() {
+        Random random = new Random(7);
+        String[] words = {"alp", "alpine", "alps", "bay", "bayou", "lake", "lakes", "old", "older", "town"};
+        for (long id = 1; id <= 60; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            tours.add(new Fields(id, name, "Country " + words[random.nextInt(words.length)], "Europe",
+                    "Guide " + words[random.nextInt(words.length)], "English"));
+            bookingCounts.put(id, (long) random.nextInt(10));
+        }
+        index.rebuild();
+
+        List<String> prefixes = new ArrayList<>(List.of("a", "al", "alp", "alpi", "alps", "b", "ba", "bay", "bayo",
+                "l", "la", "lake", "lakes", "o", "ol", "olde", "t", "to", "town", "c", "country l", "guide o", "x"));
+        for (String prefix : prefixes) {
+            for (int limit : new int[]{1, 5, SuggestionIndex.MAX_LIMIT}) {
+                assertEquals(bruteForce(prefix, limit), index.suggest(prefix, limit).stream()
+                        .map(suggestion -> suggestion.getType() + ":" + suggestion.getName())
+                        .toList(), prefix + " limit " + limit);
+            }
+        }
+    }
+
+    // Потурові зміни потрапляють у знімок при фоновому оновленні без перечитування БД
+    // і дають те саме, що повна побудова з нуля
+    @Test
+    void tourChangesRebuildSnapshotWithoutReload() {
+        Random random = new Random(3);
+        String[] words = {"alp", "alpine", "bay", "lake", "old", "town"};
+        for (long id = 1; id <= 30; id++) {
+            tour(id, words[random.nextInt(words.length)] + " " + id, random.nextInt(5));
+        }
+        index.rebuild();
+
+        for (int step = 0; step < 40; step++) {
+            long id = 1 + random.nextInt(40);
+            tours.removeIf(tour -> tour.getId() == id);
+            if (random.nextInt(3) == 0) {
+                index.tourDeleted(id);
+            } else {
+                Fields fields = new Fields(id, words[random.nextInt(words.length)] + " " + step,
+                        "Country " + words[random.nextInt(words.length)], "Europe", "Guide " + id, "English");
+                tours.add(fields);
+                index.tourSaved(entity(fields));
+            }
+        }
+        index.refresh();
+
+        verify(tourRepo, times(1)).findTourSearchFields();
+        for (String prefix : List.of("a", "al", "alp", "bay", "lake", "o", "old", "t", "town", "country b", "guide 3")) {
+            assertEquals(bruteForce(prefix, SuggestionIndex.MAX_LIMIT), index.suggest(prefix, SuggestionIndex.MAX_LIMIT)
+                    .stream()
+                    .map(suggestion -> suggestion.getType() + ":" + suggestion.getName())
+                    .toList(), prefix);
+        }
+    }
+
+    // Тур, збережений поки каскад перечитує назви з БД, не має загубитися після підміни
+    @Test
+    void changesDuringReloadSurviveTheSwap() {
+        tour(1L, "Paris Lights", 0);
+        tour(2L, "Parma Food", 0);
+        index.rebuild();
+        when(tourRepo.findTourSearchFields()).thenAnswer(invocation -> {
+            List<TourRepo.TourSearchFieldsResult> snapshot = List.copyOf(tours);
+            index.tourSaved(entity(new Fields(3L, "Parnassus Trek", "Country 3", "Europe", "Guide 3", "English")));
+            index.tourDeleted(2L);
+            return snapshot;
+        });
+
+        index.reloadAfterCommit();
+        index.refresh();
+
+        assertEquals(List.of("Paris Lights", "Parnassus Trek"), names("par"));
+    }
+
+    private List<String> bruteForce(String prefix, int limit) {
+        Map<String, Long> weights = new HashMap<>();
+        for (TourRepo.TourSearchFieldsResult tour : tours) {
+            long bookings = bookingCounts.getOrDefault(tour.getId(), 0L);
+            weights.merge(SuggestionType.TOUR + ":" + tour.getName(), bookings, Long::sum);
+            weights.merge(SuggestionType.COUNTRY + ":" + tour.getCountryName(), bookings + 1, Long::sum);
+            weights.merge(SuggestionType.GUIDE + ":" + tour.getGuideName(), bookings + 1, Long::sum);
+        }
+        return weights.entrySet().stream()
+                .filter(entry -> matches(entry.getKey().substring(entry.getKey().indexOf(':') + 1), prefix))
+                .sorted(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                        .thenComparing(entry -> entry.getKey().substring(entry.getKey().indexOf(':') + 1))
+                        .thenComparing(entry -> SuggestionType.valueOf(
+                                entry.getKey().substring(0, entry.getKey().indexOf(':')))))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static boolean matches(String name, String prefix) {
+        String normalized = name.toLowerCase(Locale.ROOT);
+        return normalized.startsWith(prefix) || normalized.contains(" " + prefix);
+    }
+
+    private List<String> names(String prefix) {
+        return index.suggest(prefix, SuggestionIndex.MAX_LIMIT).stream()
+                .filter(suggestion -> suggestion.getType() == SuggestionType.TOUR)
+                .map(SuggestionDTO::getName)
+                .toList();
+    }
+
+    private static Tour entity(Fields fields) {
+        Country country = new Country();
+        country.setName(fields.countryName());
+        Guide guide = new Guide();
+        guide.setName(fields.guideName());
+        Tour tour = new Tour();
+        tour.setId(fields.id());
+        tour.setName(fields.name());
+        tour.setCountry(country);
+        tour.setGuide(guide);
+        return tour;
+    }
+
+    // Країна і гід мають назви поза перевірюваними префіксами
+    private void tour(Long id, String name, long bookings) {
+        tours.add(new Fields(id, name, "Country " + id, "Europe", "Guide " + id, "English"));
+        bookingCounts.put(id, bookings);
+    }
+
+    private record Fields(Long id, String name, String countryName, String countryRegion, String guideName,
+                          String guideLanguage) implements TourRepo.TourSearchFieldsResult {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getCountryName() {
+            return countryName;
+        }
+
+        @Override
+        public String getCountryRegion() {
+            return countryRegion;
+        }
+
+        @Override
+        public String getGuideName() {
+            return guideName;
+        }
+
+        @Override
+        public String getGuideLanguage() {
+            return guideLanguage;
+        }
+    }
+}
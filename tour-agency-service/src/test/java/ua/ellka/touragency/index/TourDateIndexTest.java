@@ -0,0 +1,95 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TourDateIndexTest {
+    private static final LocalDate JUNE = LocalDate.of(2026, 6, 1);
+
+    private TourRepo tourRepo;
+    private TourDateIndex index;
+    private final List<TourRepo.TourDateRangeResult> ranges = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tourRepo = mock(TourRepo.class);
+        when(tourRepo.findTourDateRanges()).thenReturn(ranges);
+        index = new TourDateIndex(tourRepo);
+    }
+
+    @Test
+    void pagesByIdAfterCursor() {
+        for (long id = 1; id <= 10; id++) {
+            ranges.add(new Range(id, JUNE.plusDays(id), JUNE.plusDays(id + 3)));
+        }
+        index.rebuild();
+
+        assertEquals(List.of(3L, 4L, 5L), index.findOverlapping(JUNE.plusDays(6), JUNE.plusDays(8), 0, 3));
+        assertEquals(List.of(6L, 7L, 8L), index.findOverlapping(JUNE.plusDays(6), JUNE.plusDays(8), 5, 10));
+        assertEquals(List.of(), index.findOverlapping(JUNE.plusDays(6), JUNE.plusDays(8), 8, 10));
+    }
+
+    @Test
+    void tourWithoutDatesLeavesIndex() {
+        ranges.add(new Range(1L, JUNE, JUNE.plusDays(5)));
+        index.rebuild();
+
+        index.tourSaved(tour(1L, null, null));
+
+        assertEquals(List.of(), index.findOverlapping(JUNE, JUNE.plusDays(5), 0, 10));
+    }
+
+    // Тур, змінений між читанням знімка з БД і підміною дерева, не має відкотитися до старого періоду
+    @Test
+    void changesDuringRebuildSurviveTheSwap() {
+        ranges.add(new Range(1L, JUNE, JUNE.plusDays(5)));
+        ranges.add(new Range(2L, JUNE, JUNE.plusDays(5)));
+        when(tourRepo.findTourDateRanges()).thenAnswer(invocation -> {
+            List<TourRepo.TourDateRangeResult> snapshot = List.copyOf(ranges);
+            index.tourSaved(tour(1L, JUNE.plusDays(20), JUNE.plusDays(25)));
+            index.tourDeleted(2L);
+            index.tourSaved(tour(3L, JUNE.plusDays(1), JUNE.plusDays(2)));
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(3L), index.findOverlapping(JUNE, JUNE.plusDays(5), 0, 10));
+        assertEquals(List.of(1L), index.findOverlapping(JUNE.plusDays(20), JUNE.plusDays(20), 0, 10));
+    }
+
+    private static Tour tour(Long id, LocalDate startDate, LocalDate endDate) {
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setStartDate(startDate);
+        tour.setEndDate(endDate);
+        return tour;
+    }
+
+    private record Range(Long id, LocalDate startDate, LocalDate endDate) implements TourRepo.TourDateRangeResult {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        @Override
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+    }
+}
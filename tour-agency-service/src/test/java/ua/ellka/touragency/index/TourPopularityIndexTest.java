@@ -0,0 +1,86 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.repo.BookingRepo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TourPopularityIndexTest {
+    private BookingRepo bookingRepo;
+    private TourPopularityIndex index;
+    private final List<BookingRepo.TourBookingCountResult> counts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo = mock(BookingRepo.class);
+        when(bookingRepo.findBookingCountsByTour()).thenReturn(counts);
+        index = new TourPopularityIndex(bookingRepo);
+    }
+
+    @Test
+    void ranksByCountThenTourId() {
+        counts.add(new Count(1L, 2L));
+        counts.add(new Count(2L, 5L));
+        counts.add(new Count(3L, 2L));
+        index.rebuild();
+
+        index.bookingCreated(1L);
+        index.bookingDeleted(2L);
+        index.bookingDeleted(2L);
+
+        assertEquals(List.of(1L, 2L, 3L), index.topTourIds(10));
+        assertEquals(List.of(1L), index.topTourIds(1));
+    }
+
+    @Test
+    void tourWithoutBookingsLeavesRanking() {
+        counts.add(new Count(1L, 1L));
+        counts.add(new Count(2L, 3L));
+        index.rebuild();
+
+        index.bookingDeleted(1L);
+        index.tourDeleted(2L);
+
+        assertEquals(List.of(), index.topTourIds(10));
+        assertEquals(Map.of(), index.bookingCounts());
+    }
+
+    // Бронювання, закомічене між читанням агрегату з БД і підміною мапи, не має загубитися
+    @Test
+    void changesDuringRebuildSurviveTheSwap() {
+        counts.add(new Count(1L, 4L));
+        counts.add(new Count(2L, 3L));
+        index.rebuild();
+        when(bookingRepo.findBookingCountsByTour()).thenAnswer(invocation -> {
+            List<BookingRepo.TourBookingCountResult> snapshot = List.copyOf(counts);
+            index.bookingsCreated(2L, 5);
+            index.bookingCreated(3L);
+            index.tourDeleted(1L);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertEquals(Map.of(2L, 8L, 3L, 1L), index.bookingCounts());
+        assertEquals(List.of(2L, 3L), index.topTourIds(10));
+    }
+
+    private record Count(Long tourId, Long bookingCount) implements BookingRepo.TourBookingCountResult {
+        @Override
+        public Long getTourId() {
+            return tourId;
+        }
+
+        @Override
+        public Long getBookingCount() {
+            return bookingCount;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TourSearchIndexTest {
+    private TourRepo tourRepo;
+    private TourSearchIndex index;
+    private final List<TourRepo.TourSearchFieldsResult> tours = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tourRepo = mock(TourRepo.class);
+        when(tourRepo.findTourSearchFields()).thenReturn(tours);
+        index = new TourSearchIndex(tourRepo);
+    }
+
+    // Кожне слово запиту має збігтися хоча б з одним полем туру
+    @Test
+    void everyQueryWordMustMatch() {
+        tours.add(fields(1L, "Roman Holiday", "Italy", "Europe", "Marco", "Italian"));
+        tours.add(fields(2L, "Venice Lagoon", "Italy", "Europe", "Giulia", "English"));
+        tours.add(fields(3L, "Roman Baths", "England", "Europe", "John", "English"));
+        index.rebuild();
+
+        assertEquals(List.of(1L, 3L), index.search("roman", 10));
+        assertEquals(List.of(1L), index.search("roman italy", 10));
+        assertEquals(List.of(), index.search("venice england", 10));
+    }
+
+    @Test
+    void onlyLastWordIsPrefix() {
+        tours.add(fields(1L, "Alpine Trek", "Switzerland", "Europe", "Hans", "German"));
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("alpine swi", 10));
+        assertEquals(List.of(), index.search("alp switzerland", 10));
+    }
+
+    // Межа діапазону subMap: префікс не має захоплювати сусідні терми, що лише починаються так само
+    @Test
+    void prefixRangeStopsAtNextTerm() {
+        tours.add(fields(1L, "Paris", "France", "Europe", "Anne", "French"));
+        tours.add(fields(2L, "Parma", "Italy", "Europe", "Luca", "Italian"));
+        tours.add(fields(3L, "Pass", "Austria", "Europe", "Kurt", "German"));
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("pari", 10));
+        assertEquals(List.of(1L, 2L), index.search("par", 10));
+        assertEquals(List.of(1L, 2L, 3L), index.search("pa", 10));
+    }
+
+    @Test
+    void exactTermOutranksPrefixExpansion() {
+        tours.add(fields(1L, "Nile Cruises", "Egypt", "Africa", "Amir", "Arabic"));
+        tours.add(fields(2L, "Nile Cruise", "Egypt", "Africa", "Amal", "Arabic"));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), index.search("cruise", 10));
+    }
+
+    // Назва туру важить більше за мову гіда
+    @Test
+    void nameFieldOutranksGuideLanguage() {
+        tours.add(fields(1L, "Madrid Walk", "Spain", "Europe", "Pablo", "Spanish"));
+        tours.add(fields(2L, "Spanish Steps", "Italy", "Europe", "Paolo", "Italian"));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), index.search("spanish", 10));
+    }
+
+    @Test
+    void limitKeepsBestScoresAndBreaksTiesByLowerId() {
+        for (long id = 1; id <= 5; id++) {
+            tours.add(fields(id, "Safari " + id, "Kenya", "Africa", "Guide " + id, "English"));
+        }
+        index.rebuild();
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("safari", 3));
+    }
+
+    @Test
+    void savedAndDeletedToursUpdateResults() {
+        tours.add(fields(1L, "Fjord Cruise", "Norway", "Europe", "Ole", "Norwegian"));
+        index.rebuild();
+
+        // Поза транзакцією зміни застосовуються одразу
+        index.tourSaved(tour(1L, "Glacier Hike", "Norway", "Ole"));
+        index.tourSaved(tour(2L, "Fjord Kayak", "Norway", "Ole"));
+
+        assertEquals(List.of(), index.search("glacier cruise", 10));
+        assertEquals(List.of(1L), index.search("glacier", 10));
+        assertEquals(List.of(2L), index.search("fjord", 10));
+
+        index.tourDeleted(2L);
+        assertEquals(List.of(), index.search("fjord", 10));
+    }
+
+    // Тур, змінений між читанням знімка з БД і підміною індексу, не має відкотитися до старого стану
+    @Test
+    void changesDuringRebuildSurviveTheSwap() {
+        tours.add(fields(1L, "Old Town Walk", "Czechia", "Europe", "Jan", "Czech"));
+        tours.add(fields(2L, "Castle Tour", "Czechia", "Europe", "Eva", "Czech"));
+        when(tourRepo.findTourSearchFields()).thenAnswer(invocation -> {
+            List<TourRepo.TourSearchFieldsResult> snapshot = List.copyOf(tours);
+            index.tourSaved(tour(1L, "New Town Walk", "Czechia", "Jan"));
+            index.tourDeleted(2L);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), index.search("new town", 10));
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of(), index.search("castle", 10));
+    }
+
+    private static Tour tour(Long id, String name, String countryName, String guideName) {
+        Tour tour = new Tour();
+        tour.setId(id);
+        tour.setName(name);
+        tour.setCountry(new Country(null, countryName, "Europe"));
+        tour.setGuide(new Guide(null, guideName, "English", null));
+        return tour;
+    }
+
+    private static TourRepo.TourSearchFieldsResult fields(Long id, String name, String countryName,
+                                                          String countryRegion, String guideName,
+                                                          String guideLanguage) {
+        return new Fields(id, name, countryName, countryRegion, guideName, guideLanguage);
+    }
+
+    private record Fields(Long id, String name, String countryName, String countryRegion, String guideName,
+                          String guideLanguage) implements TourRepo.TourSearchFieldsResult {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getCountryName() {
+            return countryName;
+        }
+
+        @Override
+        public String getCountryRegion() {
+            return countryRegion;
+        }
+
+        @Override
+        public String getGuideName() {
+            return guideName;
+        }
+
+        @Override
+        public String getGuideLanguage() {
+            return guideLanguage;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ua.ellka.touragency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TourSeatCountersTest {
+    private static final Long TOUR_ID = 1L;
+    private static final int THREADS = 32;
+
+    private TourRepo tourRepo;
+    private TourSeatCounters tourSeatCounters;
+
+    @BeforeEach
+    void setUp() {
+        tourRepo = mock(TourRepo.class);
+        tourSeatCounters = new TourSeatCounters(tourRepo);
+    }
+
+    @Test
+    void concurrentBookingsNeverOversell() throws Exception {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID)).thenReturn(Optional.of(50));
+
+        int acquired = StripedSeatCounterTest.race(THREADS, () -> {
+            int seats = 0;
+            for (int i = 0; i < 100; i++) {
+                if (tourSeatCounters.acquire(TOUR_ID)) {
+                    seats++;
+                }
+            }
+            return seats;
+        });
+
+        assertEquals(50, acquired);
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+        // Залишок читається з БД один раз, а не кожним потоком
+        verify(tourRepo, times(1)).findAvailableSeatsById(TOUR_ID);
+    }
+
+    @Test
+    void releasedSeatCanBeBookedAgain() {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID)).thenReturn(Optional.of(1));
+
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+
+        // Поза транзакцією повернення застосовується одразу
+        tourSeatCounters.released(TOUR_ID);
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+    }
+
+    @Test
+    void invalidateRereadsRemainingSeats() {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID)).thenReturn(Optional.of(0), Optional.of(2));
+
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+
+        tourSeatCounters.invalidate(TOUR_ID);
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+    }
+
+    @Test
+    void tourWithoutCapacityIsNeverSoldOut() throws Exception {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID)).thenReturn(Optional.empty());
+
+        int acquired = StripedSeatCounterTest.race(THREADS, () -> {
+            int seats = 0;
+            for (int i = 0; i < 100; i++) {
+                if (tourSeatCounters.acquire(TOUR_ID)) {
+                    seats++;
+                }
+            }
+            return seats;
+        });
+
+        assertEquals(THREADS * 100, acquired);
+    }
+}
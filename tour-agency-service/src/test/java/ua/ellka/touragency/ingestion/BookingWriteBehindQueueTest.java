@@ -0,0 +1,147 @@
+package ua.ellka.touragency.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+import ua.ellka.touragency.dto.BookingIngestionStatus;
+import ua.ellka.touragency.index.BookingStatisticsRollup;
+import ua.ellka.touragency.index.TourPopularityIndex;
+import ua.ellka.touragency.index.TourSeatCounters;
+import ua.ellka.touragency.model.Booking;
+import ua.ellka.touragency.model.Client;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.model.User;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.repo.ClientRepo;
+import ua.ellka.touragency.repo.TourRepo;
+import ua.ellka.touragency.reservation.SeatReservations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingWriteBehindQueueTest {
+    private static final Long TOUR_ID = 7L;
+    private static final LocalDate BOOKING_DATE = LocalDate.of(2026, 7, 1);
+
+    private ClientRepo clientRepo;
+    private TourRepo tourRepo;
+    private BookingRepo bookingRepo;
+    private TourSeatCounters tourSeatCounters;
+    private BookingWriteBehindQueue queue;
+    private final List<Booking> saved = new ArrayList<>();
+    private Runnable beforeSave = () -> {
+    };
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clientRepo = mock(ClientRepo.class);
+        tourRepo = mock(TourRepo.class);
+        bookingRepo = mock(BookingRepo.class);
+        tourSeatCounters = new TourSeatCounters(tourRepo);
+        SeatReservations seatReservations = new SeatReservations(tourRepo, tourSeatCounters,
+                mock(TourCatalogCache.class));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+
+        queue = new BookingWriteBehindQueue(clientRepo, tourRepo, bookingRepo, seatReservations, tourSeatCounters,
+                mock(TourPopularityIndex.class), mock(BookingStatisticsRollup.class), transactionTemplate,
+                new SimpleMeterRegistry(), false, 100, 200, 20);
+
+        Tour tour = new Tour();
+        tour.setId(TOUR_ID);
+        tour.setCountry(new Country(null, "Italy", "Europe"));
+        tour.setGuide(new Guide(null, "Marco", "Italian", null));
+        when(tourRepo.getReferenceById(TOUR_ID)).thenReturn(tour);
+        when(tourRepo.findExistingIds(anyCollection())).thenReturn(List.of(TOUR_ID));
+        when(bookingRepo.findBookingKeys(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(bookingRepo.saveAll(any())).thenAnswer(invocation -> {
+            beforeSave.run();
+            ((Iterable<Booking>) invocation.getArgument(0)).forEach(saved::add);
+            return saved;
+        });
+    }
+
+    // Лічильник вважав, що місць 3, а в БД лишилось одне: пакет отримує одне місце, два бронювання
+    // відхиляються. Лічильник при цьому скинуто, і повернення відхилених місць у перечитаний
+    // лічильник дало б два місця, яких у БД немає
+    @Test
+    void partialGrantDoesNotCreditRecountedCounter() {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID))
+                .thenReturn(Optional.of(3))
+                .thenReturn(Optional.of(1))
+                .thenReturn(Optional.of(0));
+        when(tourRepo.reserveSeats(TOUR_ID, 3)).thenReturn(0);
+        when(tourRepo.reserveSeat(TOUR_ID)).thenReturn(1, 0);
+
+        List<Client> clients = new ArrayList<>();
+        List<String> tickets = new ArrayList<>();
+        for (long userId = 1; userId <= 3; userId++) {
+            clients.add(client(userId));
+            assertTrue(tourSeatCounters.acquire(TOUR_ID));
+            tickets.add(queue.enqueue(userId, TOUR_ID, BOOKING_DATE).getTicketId());
+        }
+        when(clientRepo.findByUserIdIn(anyCollection())).thenReturn(clients);
+        // Паралельний запит між списанням і комітом перечитує скинутий лічильник
+        beforeSave = () -> assertFalse(tourSeatCounters.acquire(TOUR_ID));
+
+        queue.drain();
+
+        assertEquals(1, saved.size());
+        assertEquals(BookingIngestionStatus.CONFIRMED, status(tickets.get(0), 1L).getStatus());
+        assertEquals(BookingIngestionStatus.REJECTED, status(tickets.get(1), 2L).getStatus());
+        assertEquals(BookingIngestionStatus.REJECTED, status(tickets.get(2), 3L).getStatus());
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+    }
+
+    // Без нестачі місць лічильник не скидається, і місце відхиленого бронювання повертається в нього
+    @Test
+    void rejectedBookingReturnsSeatToLiveCounter() {
+        when(tourRepo.findAvailableSeatsById(TOUR_ID)).thenReturn(Optional.of(2));
+        when(tourRepo.reserveSeats(TOUR_ID, 1)).thenReturn(1);
+
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        String confirmed = queue.enqueue(1L, TOUR_ID, BOOKING_DATE).getTicketId();
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        String withoutClient = queue.enqueue(2L, TOUR_ID, BOOKING_DATE).getTicketId();
+        when(clientRepo.findByUserIdIn(anyCollection())).thenReturn(List.of(client(1L)));
+
+        queue.drain();
+
+        assertEquals(BookingIngestionStatus.CONFIRMED, status(confirmed, 1L).getStatus());
+        assertEquals(BookingIngestionStatus.REJECTED, status(withoutClient, 2L).getStatus());
+        assertTrue(tourSeatCounters.acquire(TOUR_ID));
+        assertFalse(tourSeatCounters.acquire(TOUR_ID));
+    }
+
+    private BookingIngestionDTO status(String ticketId, Long userId) {
+        return queue.status(ticketId, userId).orElseThrow();
+    }
+
+    private static Client client(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Client client = new Client();
+        client.setId(userId + 100);
+        client.setUser(user);
+        return client;
+    }
+}
@@ -0,0 +1,137 @@
+package ua.ellka.touragency.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Колесо крутиться вручну від моменту 0: тік n (рахуючи з 1) відповідає часу n секунд
+class HashedTimingWheelTest {
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SIZE = 4;
+
+    private final List<List<String>> batches = new ArrayList<>();
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>("test-wheel", TICK, WHEEL_SIZE, batches::add);
+        wheel.startAt(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void timerExpiresOnTickOfItsDeadline() {
+        wheel.schedule("exact", at(1_000));
+        wheel.schedule("between", at(2_500));
+
+        assertEquals(List.of("exact"), tick());
+        assertEquals(List.of(), tick());
+        assertEquals(List.of("between"), tick());
+    }
+
+    // Дедлайн через 10 тіків у колесі з 4 комірок: комірка 1 проходиться на тіках 2, 6 і 10,
+    // і таймер має пережити два оберти, не зачепивши сусіда з тієї ж комірки
+    @Test
+    void deadlineBeyondOneRevolutionWaitsForRounds() {
+        wheel.schedule("far", at(10_000));
+        wheel.schedule("near", at(2_000));
+
+        List<Integer> firedAt = new ArrayList<>();
+        for (int tick = 1; tick <= 12; tick++) {
+            List<String> expired = tick();
+            if (expired.contains("far")) {
+                firedAt.add(tick);
+            }
+            if (expired.contains("near")) {
+                assertEquals(2, tick);
+            }
+        }
+
+        assertEquals(List.of(10), firedAt);
+    }
+
+    @Test
+    void timerScheduledAfterStartCountsFromCurrentTick() {
+        tick();
+        tick();
+        tick();
+
+        wheel.schedule("later", at(9_000));
+
+        for (int tick = 4; tick < 9; tick++) {
+            assertEquals(List.of(), tick(), "tick " + tick);
+        }
+        assertEquals(List.of("later"), tick());
+    }
+
+    @Test
+    void overdueTimerExpiresOnNextTick() {
+        tick();
+        tick();
+        tick();
+
+        wheel.schedule("overdue", at(500));
+
+        assertEquals(List.of("overdue"), tick());
+    }
+
+    @Test
+    void timersOfOneTickExpireInOneBatch() {
+        wheel.schedule("a", at(3_000));
+        wheel.schedule("b", at(2_001));
+        wheel.schedule("c", at(3_000));
+
+        tick();
+        tick();
+        List<String> expired = tick();
+
+        assertEquals(3, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b", "c")));
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void failingCallbackDoesNotStopTheWheel() {
+        AtomicInteger calls = new AtomicInteger();
+        List<String> delivered = new ArrayList<>();
+        try (HashedTimingWheel<String> failing = new HashedTimingWheel<>("failing-wheel", TICK, WHEEL_SIZE, items -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            delivered.addAll(items);
+        })) {
+            failing.startAt(0);
+            failing.schedule("first", at(1_000));
+            failing.schedule("second", at(2_000));
+
+            failing.tick();
+            failing.tick();
+
+            assertEquals(2, calls.get());
+            assertEquals(List.of("second"), delivered);
+        }
+    }
+
+    private List<String> tick() {
+        int before = batches.size();
+        wheel.tick();
+        return batches.size() == before ? List.of() : batches.get(batches.size() - 1);
+    }
+
+    private static Instant at(long millis) {
+        return Instant.ofEpochMilli(millis);
+    }
+}
@@ -0,0 +1,176 @@
+package ua.ellka.touragency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.ellka.touragency.cache.TourCatalogCache;
+import ua.ellka.touragency.dto.ExportFormat;
+import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourImportErrorDTO;
+import ua.ellka.touragency.dto.TourImportFormat;
+import ua.ellka.touragency.dto.TourImportReportDTO;
+import ua.ellka.touragency.index.CountryDictionary;
+import ua.ellka.touragency.index.SuggestionIndex;
+import ua.ellka.touragency.index.TourDateIndex;
+import ua.ellka.touragency.index.TourSearchIndex;
+import ua.ellka.touragency.mapper.TourMapper;
+import ua.ellka.touragency.model.Country;
+import ua.ellka.touragency.model.Guide;
+import ua.ellka.touragency.model.Tour;
+import ua.ellka.touragency.repo.BookingRepo;
+import ua.ellka.touragency.repo.GuideRepo;
+import ua.ellka.touragency.repo.TourRepo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TourImportServiceImplTest {
+    private static final long GUIDE_ID = 7L;
+
+    private TourRepo tourRepo;
+    private TransactionTemplate transactionTemplate;
+    private TourImportServiceImpl importService;
+    private final List<Tour> saved = new ArrayList<>();
+    // Частина, що починається з цієї назви, один раз падає на записі
+    private String failingChunk;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        tourRepo = mock(TourRepo.class);
+        GuideRepo guideRepo = mock(GuideRepo.class);
+        CountryDictionary countryDictionary = mock(CountryDictionary.class);
+        transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+        when(tourRepo.findExistingNames(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return saved.stream().map(Tour::getName).filter(names::contains).toList();
+        });
+        when(tourRepo.saveAll(any())).thenAnswer(invocation -> {
+            List<Tour> tours = invocation.getArgument(0);
+            if (!tours.isEmpty() && tours.get(0).getName().equals(failingChunk)) {
+                failingChunk = null;
+                throw new DataIntegrityViolationException("connection reset");
+            }
+            saved.addAll(tours);
+            return tours;
+        });
+        when(guideRepo.findAllById(any())).thenAnswer(invocation -> {
+            List<Guide> guides = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (id == GUIDE_ID) {
+                    Guide guide = new Guide();
+                    guide.setId(id);
+                    guides.add(guide);
+                }
+            }
+            return guides;
+        });
+        when(countryDictionary.resolve(any(), any())).thenAnswer(invocation -> {
+            Country country = new Country();
+            country.setName(invocation.getArgument(0));
+            country.setRegion(invocation.getArgument(1));
+            return country;
+        });
+
+        importService = new TourImportServiceImpl(tourRepo, guideRepo, countryDictionary,
+                mock(TourSearchIndex.class), mock(TourDateIndex.class), mock(SuggestionIndex.class),
+                TourMapper.INSTANCE, mock(TourCatalogCache.class), transactionTemplate,
+                new ObjectMapper(), mock(EntityManager.class));
+        Field batchSize = TourImportServiceImpl.class.getDeclaredField("batchSize");
+        batchSize.setAccessible(true);
+        batchSize.setInt(importService, 2);
+    }
+
+    // Експорт турів має завантажуватися назад: коми, лапки і переноси рядків у полях переживають цикл
+    @Test
+    void exportedCsvImportsBack() throws IOException {
+        List<TourDTO> tours = List.of(
+                tour(1L, "Carpathians, \"Hoverla\" trek", "Ukraine"),
+                tour(2L, "Lviv\nnight walk", "Ukraine"),
+                tour(3L, "Line one\r\n\"quoted\", line two", "Poland"),
+                tour(4L, "Plain", "Poland"));
+        when(tourRepo.streamAllTourDTOs()).thenAnswer(invocation -> tours.stream());
+        ExportServiceImpl exportService = new ExportServiceImpl(tourRepo, mock(BookingRepo.class),
+                new ObjectMapper(), transactionTemplate);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportTours(ExportFormat.CSV).writeTo(csv);
+        TourImportReportDTO report = importService.importTours(
+                new ByteArrayInputStream(csv.toByteArray()), TourImportFormat.CSV);
+
+        assertEquals(List.of(), report.getErrors());
+        assertEquals(4, report.getImported());
+        // BufferedReader читає \r\n як один перенос, тому всередині поля він нормалізується до \n
+        assertEquals(List.of("Carpathians, \"Hoverla\" trek", "Lviv\nnight walk", "Line one\n\"quoted\", line two", "Plain"),
+                saved.stream().map(Tour::getName).toList());
+        assertEquals(List.of("Ukraine", "Ukraine", "Poland", "Poland"),
+                saved.stream().map(tour -> tour.getCountry().getName()).toList());
+        assertEquals(BigDecimal.valueOf(1200), saved.get(1).getPrice());
+        assertEquals(20, saved.get(2).getAvailableSeats());
+    }
+
+    // Номер рядка у звіті - перший рядок запису, навіть якщо попередній запис займав кілька рядків
+    @Test
+    void reportsFirstLineOfMultiLineRecord() {
+        String csv = """
+                name,countryName,guideId,price
+                "Two
+                lines",Ukraine,7,10
+                Broken,Ukraine,7,-1
+                "Never closed,Ukraine,7,10
+                """;
+
+        TourImportReportDTO report = importService.importTours(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TourImportFormat.CSV);
+
+        assertEquals(3, report.getTotal());
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(4L, 5L), report.getErrors().stream().map(TourImportErrorDTO::getLine).toList());
+    }
+
+    // Назва зайнята лише записаним рядком: дублікат рядка, що не пройшов, імпортується
+    @Test
+    void duplicateOfRejectedRowIsImported() {
+        String csv = """
+                name,countryName,guideId,price
+                Kyiv,Ukraine,99,10
+                Kyiv,Ukraine,7,10
+                Odesa,Ukraine,7,10
+                Lviv,Ukraine,7,10
+                Odesa,Ukraine,7,10
+                Lviv,Ukraine,7,10
+                """;
+        // Друга частина (Odesa, Lviv) падає цілком, тож їхні дублікати в третій частині мають пройти
+        failingChunk = "Odesa";
+
+        TourImportReportDTO report = importService.importTours(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TourImportFormat.CSV);
+
+        assertEquals(List.of("Kyiv", "Odesa", "Lviv"), saved.stream().map(Tour::getName).toList());
+        assertEquals(3, report.getImported());
+        assertEquals(List.of(2L, 4L, 5L), report.getErrors().stream().map(TourImportErrorDTO::getLine).toList());
+    }
+
+    private static TourDTO tour(Long id, String name, String countryName) {
+        return new TourDTO(id, name, 10L, countryName, "Europe", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 5),
+                BigDecimal.valueOf(1200), GUIDE_ID, "Guide", null, 20, 20);
+    }
+}
@@ -1,12 +1,21 @@
 package ua.ellka.touragency.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.BookingIngestionDTO;
+import ua.ellka.touragency.dto.ExportFormat;
+import ua.ellka.touragency.dto.PageDTO;
+import ua.ellka.touragency.service.BookingIngestionService;
 import ua.ellka.touragency.service.BookingService;
+import ua.ellka.touragency.service.ExportService;
+import ua.ellka.touragency.service.IdempotencyService;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -15,34 +24,72 @@ import java.util.Map;
 @RequestMapping("/v1/booking")
 public class BookingController {
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final BookingIngestionService bookingIngestionService;
+    private final ExportService exportService;
 
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<BookingDTO>> getAllBookingsByClientId(@PathVariable Long clientId) {
-        List<BookingDTO> allBookingsByClientId = bookingService.getAllBookingsByClientId(clientId);
+    public ResponseEntity<List<BookingDTO>> getAllBookingsByClientId(@PathVariable Long clientId,
+                                                                     @RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer limit) {
+        PageDTO<BookingDTO> allBookingsByClientId = bookingService.getAllBookingsByClientId(clientId, after, limit);
 
-        return ResponseEntity.ok(allBookingsByClientId);
+        return PageResponses.ok(allBookingsByClientId);
     }
 
     @GetMapping("/tour/{tourId}")
-    public ResponseEntity<List<BookingDTO>> getBookingsForTourId(@PathVariable Long tourId) {
-        List<BookingDTO> bookingsForTour = bookingService.getBookingsForTourId(tourId);
+    public ResponseEntity<List<BookingDTO>> getBookingsForTourId(@PathVariable Long tourId,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit) {
+        PageDTO<BookingDTO> bookingsForTour = bookingService.getBookingsForTourId(tourId, after, limit);
 
-        return ResponseEntity.ok(bookingsForTour);
+        return PageResponses.ok(bookingsForTour);
+    }
+
+    // Без tourId - усі бронювання
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(required = false) Long tourId,
+                                                                @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        ExportService.ExportWriter exportBookings = exportService.exportBookings(tourId, format);
+
+        return ExportResponses.ok(tourId == null ? "bookings" : "bookings-tour-" + tourId, format, exportBookings);
     }
 
     @GetMapping("/statisticsByMonth")
-    public ResponseEntity<Map<String, Long>> getBookingStatisticsByMonth() {
-        Map<String, Long> bookingStatisticsByMonth = bookingService.getBookingStatisticsByMonth();
+    public ResponseEntity<Map<String, Long>> getBookingStatisticsByMonth(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        Map<String, Long> bookingStatisticsByMonth = bookingService.getBookingStatisticsByMonth(from, to);
 
         return ResponseEntity.ok(bookingStatisticsByMonth);
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BookingDTO> createBooking(@RequestBody BookingDTO bookingDTO) {
-        BookingDTO createBooking = bookingService.createBooking(bookingDTO);
+    public ResponseEntity<BookingDTO> createBooking(
+            @RequestHeader(name = IdempotentResponses.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody BookingDTO bookingDTO) {
+        IdempotencyService.Result<BookingDTO> createBooking = idempotencyService.execute(
+                "booking", idempotencyKey, bookingDTO, BookingDTO.class, () -> bookingService.createBooking(bookingDTO));
+
+        return IdempotentResponses.ok(createBooking);
+    }
+
+    // Бронювання через write-behind чергу: 202 з квитком, стан якого перевіряється окремим запитом
+    @PostMapping(value = "/async",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingIngestionDTO> submitBooking(@RequestBody BookingDTO bookingDTO) {
+        BookingIngestionDTO submitBooking = bookingIngestionService.submitBooking(bookingDTO);
+
+        return ResponseEntity.accepted().body(submitBooking);
+    }
+
+    @GetMapping("/async/{ticketId}")
+    public ResponseEntity<BookingIngestionDTO> getBookingStatus(@PathVariable String ticketId) {
+        BookingIngestionDTO bookingStatus = bookingIngestionService.getBookingStatus(ticketId);
 
-        return ResponseEntity.ok(createBooking);
+        return ResponseEntity.ok(bookingStatus);
     }
 
     @DeleteMapping("/{id}")
@@ -5,6 +5,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ua.ellka.touragency.dto.ClientDTO;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.service.ClientService;
 
 import java.util.List;
@@ -16,10 +17,11 @@ public class ClientController {
     private final ClientService clientService;
 
     @GetMapping
-    public ResponseEntity<List<ClientDTO>> getAllClients() {
-        List<ClientDTO> allClients = clientService.getAllClients();
+    public ResponseEntity<List<ClientDTO>> getAllClients(@RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        PageDTO<ClientDTO> allClients = clientService.getAllClients(after, limit);
 
-        return ResponseEntity.ok(allClients);
+        return PageResponses.ok(allClients);
     }
 
     @GetMapping("/country/{countryId}")
@@ -0,0 +1,34 @@
+package ua.ellka.touragency.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+final class ConditionalResponses {
+    private ConditionalResponses() {
+    }
+
+    // Перевірка If-None-Match / If-Modified-Since до читання даних: при збігу Spring сам віддає 304
+    // з порожнім тілом, тому контролер повертає null і не звертається до сервісу.
+    // ETag і Last-Modified записуються у відповідь в обох випадках, а no-cache змушує браузер
+    // щоразу перепитувати сервер замість евристичного кешування
+    static boolean notModified(ServletWebRequest request, String version, long lastModified) {
+        noCache(request);
+        return request.checkNotModified(etag(version), lastModified);
+    }
+
+    static boolean notModified(ServletWebRequest request, String version) {
+        noCache(request);
+        return request.checkNotModified(etag(version));
+    }
+
+    private static void noCache(ServletWebRequest request) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+    }
+
+    private static String etag(String version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,33 @@
+package ua.ellka.touragency.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.ellka.touragency.dto.ExportFormat;
+import ua.ellka.touragency.service.ExportService;
+
+import java.nio.charset.StandardCharsets;
+
+final class ExportResponses {
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private ExportResponses() {
+    }
+
+    // Тіло пишеться окремим потоком MVC async уже після повернення з контролера
+    static ResponseEntity<StreamingResponseBody> ok(String fileName,
+                                                    ExportFormat format,
+                                                    ExportService.ExportWriter exportWriter) {
+        boolean csv = format == ExportFormat.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(fileName + (csv ? ".csv" : ".jsonl"))
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(exportWriter::writeTo);
+    }
+}
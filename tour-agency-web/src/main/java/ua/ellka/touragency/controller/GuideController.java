@@ -5,6 +5,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ua.ellka.touragency.dto.GuideDTO;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.service.GuideService;
 
 import java.util.List;
@@ -16,10 +17,11 @@ public class GuideController {
     private final GuideService guideService;
 
     @GetMapping
-    public ResponseEntity<List<GuideDTO>> getAllGuides() {
-        List<GuideDTO> allGuides = guideService.getAllGuides();
+    public ResponseEntity<List<GuideDTO>> getAllGuides(@RequestParam(required = false) String after,
+                                                       @RequestParam(required = false) Integer limit) {
+        PageDTO<GuideDTO> allGuides = guideService.getAllGuides(after, limit);
 
-        return ResponseEntity.ok(allGuides);
+        return PageResponses.ok(allGuides);
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -0,0 +1,23 @@
+package ua.ellka.touragency.controller;
+
+import org.springframework.http.ResponseEntity;
+import ua.ellka.touragency.service.IdempotencyService;
+
+final class IdempotentResponses {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private IdempotentResponses() {
+    }
+
+    // Повтор повертає збережену відповідь першого запиту і позначається окремим заголовком
+    static <T> ResponseEntity<T> ok(IdempotencyService.Result<T> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+
+        return response.body(result.body());
+    }
+}
@@ -0,0 +1,27 @@
+package ua.ellka.touragency.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ua.ellka.touragency.dto.PageDTO;
+
+import java.util.List;
+
+final class PageResponses {
+    private PageResponses() {
+    }
+
+    // Тіло лишається масивом (сумісно з фронтендом), посилання на наступну сторінку - у заголовку Link
+    static <T> ResponseEntity<List<T>> ok(PageDTO<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.getNext() != null) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNext())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+
+        return response.body(page.getItems());
+    }
+}
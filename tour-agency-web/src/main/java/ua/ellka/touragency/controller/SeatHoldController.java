@@ -0,0 +1,50 @@
+package ua.ellka.touragency.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ua.ellka.touragency.dto.BookingDTO;
+import ua.ellka.touragency.dto.SeatHoldDTO;
+import ua.ellka.touragency.service.BookingService;
+import ua.ellka.touragency.service.SeatHoldService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/booking/hold")
+public class SeatHoldController {
+    private final SeatHoldService seatHoldService;
+    private final BookingService bookingService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SeatHoldDTO> createHold(@RequestBody SeatHoldDTO seatHoldDTO) {
+        SeatHoldDTO createHold = seatHoldService.createHold(seatHoldDTO);
+
+        return ResponseEntity.ok(createHold);
+    }
+
+    @PutMapping("/{holdId}")
+    public ResponseEntity<SeatHoldDTO> extendHold(@PathVariable String holdId) {
+        SeatHoldDTO extendHold = seatHoldService.extendHold(holdId);
+
+        return ResponseEntity.ok(extendHold);
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<BookingDTO> confirmHold(@PathVariable String holdId,
+                                                  @RequestBody(required = false) BookingDTO bookingDTO) {
+        BookingDTO booking = bookingDTO != null ? bookingDTO : new BookingDTO();
+        booking.setHoldId(holdId);
+        BookingDTO createBooking = bookingService.createBooking(booking);
+
+        return ResponseEntity.ok(createBooking);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<SeatHoldDTO> releaseHold(@PathVariable String holdId) {
+        SeatHoldDTO releaseHold = seatHoldService.releaseHold(holdId);
+
+        return ResponseEntity.ok(releaseHold);
+    }
+}
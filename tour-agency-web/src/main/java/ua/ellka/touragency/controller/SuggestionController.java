@@ -0,0 +1,27 @@
+package ua.ellka.touragency.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ua.ellka.touragency.dto.SuggestionDTO;
+import ua.ellka.touragency.service.SuggestionService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/suggest")
+public class SuggestionController {
+    private final SuggestionService suggestionService;
+
+    @GetMapping
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(required = false) Integer limit) {
+        List<SuggestionDTO> suggestions = suggestionService.suggest(prefix, limit);
+
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -1,13 +1,29 @@
 package ua.ellka.touragency.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.ellka.touragency.dto.ExportFormat;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.TourDTO;
+import ua.ellka.touragency.dto.TourFilterDTO;
+import ua.ellka.touragency.dto.TourFilterResultDTO;
+import ua.ellka.touragency.dto.TourImportFormat;
+import ua.ellka.touragency.dto.TourImportReportDTO;
+import ua.ellka.touragency.dto.TourProfitDTO;
+import ua.ellka.touragency.service.ExportService;
+import ua.ellka.touragency.service.IdempotencyService;
+import ua.ellka.touragency.service.TourImportService;
 import ua.ellka.touragency.service.TourService;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,19 +31,70 @@ import java.util.List;
 @RequestMapping("/v1/tour")
 public class TourController {
     private final TourService tourService;
+    private final IdempotencyService idempotencyService;
+    private final TourImportService tourImportService;
+    private final ExportService exportService;
 
     @GetMapping
-    public ResponseEntity<List<TourDTO>> getAllTours() {
-        List<TourDTO> allTours = tourService.getAllTours();
+    public ResponseEntity<List<TourDTO>> getAllTours(@RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     ServletWebRequest request) {
+        long catalogVersion = tourService.getCatalogVersion();
+        if (ConditionalResponses.notModified(request, "c" + catalogVersion, catalogVersion)) {
+            return null;
+        }
 
-        return ResponseEntity.ok(allTours);
+        PageDTO<TourDTO> allTours = tourService.getAllTours(after, limit);
+
+        return PageResponses.ok(allTours);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TourDTO> getTourById(@PathVariable Long id) {
+    public ResponseEntity<TourDTO> getTourById(@PathVariable Long id, ServletWebRequest request) {
+        long tourVersion = tourService.getTourVersion(id);
+        if (ConditionalResponses.notModified(request, "t" + id + "-" + tourVersion, tourVersion)) {
+            return null;
+        }
+
         return ResponseEntity.ok(tourService.getTourById(id));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<TourDTO>> searchTours(@RequestParam(name = "q") String query,
+                                                     @RequestParam(required = false) Integer limit) {
+        List<TourDTO> searchTours = tourService.searchTours(query, limit);
+
+        return ResponseEntity.ok(searchTours);
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<List<TourDTO>> getAvailableTours(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        PageDTO<TourDTO> availableTours = tourService.getAvailableTours(from, to, after, limit);
+
+        return PageResponses.ok(availableTours);
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<TourFilterResultDTO> filterTours(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endTo,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String guideLanguage,
+            @RequestParam(required = false) String countryName,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        TourFilterDTO filter = new TourFilterDTO(minPrice, maxPrice, startFrom, endTo, region, guideLanguage, countryName);
+        TourFilterResultDTO filterTours = tourService.filterTours(filter, after, limit);
+
+        return ResponseEntity.ok(filterTours);
+    }
+
     @GetMapping("/country/{countryName}")
     public ResponseEntity<List<TourDTO>> getToursByCountryName(@PathVariable(name = "countryName") String countryName) {
         List<TourDTO> getToursByCountryId = tourService.getToursByCountryName(countryName);
@@ -50,12 +117,23 @@ public class TourController {
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<List<TourDTO>> getMostPopularTours() {
+    public ResponseEntity<List<TourDTO>> getMostPopularTours(ServletWebRequest request) {
+        if (ConditionalResponses.notModified(request, "p" + tourService.getPopularToursVersion())) {
+            return null;
+        }
+
         List<TourDTO> popularTours = tourService.getMostPopularTours();
 
         return ResponseEntity.ok(popularTours);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTours(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        ExportService.ExportWriter exportTours = exportService.exportTours(format);
+
+        return ExportResponses.ok("tours", format, exportTours);
+    }
+
     @GetMapping("/profit/{id}")
     public ResponseEntity<BigDecimal> getTourProfit(@PathVariable(name = "id") Long id) {
         BigDecimal tourProfit = tourService.getTourProfit(id);
@@ -63,12 +141,36 @@ public class TourController {
         return ResponseEntity.ok(tourProfit);
     }
 
+    @GetMapping("/profit/guide/{guideId}")
+    public ResponseEntity<List<TourProfitDTO>> getTourProfitsByGuideId(@PathVariable(name = "guideId") Long guideId) {
+        List<TourProfitDTO> tourProfits = tourService.getTourProfitsByGuideId(guideId);
+
+        return ResponseEntity.ok(tourProfits);
+    }
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<TourDTO> createTour(@RequestBody TourDTO tourDTO) {
-        TourDTO createTour = tourService.createTour(tourDTO);
+    public ResponseEntity<TourDTO> createTour(
+            @RequestHeader(name = IdempotentResponses.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody TourDTO tourDTO) {
+        IdempotencyService.Result<TourDTO> createTour = idempotencyService.execute(
+                "tour", idempotencyKey, tourDTO, TourDTO.class, () -> tourService.createTour(tourDTO));
 
-        return ResponseEntity.ok(createTour);
+        return IdempotentResponses.ok(createTour);
+    }
+
+    // Потокове завантаження: тіло читається рядок за рядком, а не цілим файлом у пам'ять
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", "application/x-ndjson"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TourImportReportDTO> importTours(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           InputStream body) {
+        TourImportFormat format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? TourImportFormat.JSON_LINES
+                : TourImportFormat.CSV;
+        TourImportReportDTO importReport = tourImportService.importTours(body, format);
+
+        return ResponseEntity.ok(importReport);
     }
 
     @PutMapping("/{id}")
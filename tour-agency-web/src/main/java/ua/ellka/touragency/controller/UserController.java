@@ -3,6 +3,7 @@ package ua.ellka.touragency.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ua.ellka.touragency.dto.PageDTO;
 import ua.ellka.touragency.dto.UserDTO;
 import ua.ellka.touragency.service.UserService;
 
@@ -15,9 +16,10 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> allUser = userService.getAllUser();
-        return ResponseEntity.ok(allUser);
+    public ResponseEntity<List<UserDTO>> getAllUsers(@RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit) {
+        PageDTO<UserDTO> allUser = userService.getAllUser(after, limit);
+        return PageResponses.ok(allUser);
     }
 
     @GetMapping("/{id}")
@@ -2,6 +2,7 @@ package ua.ellka.touragency.exception;
 
 import jakarta.persistence.PersistenceException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -39,6 +40,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDTO, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(BadRequestServiceException.class)
+    public ResponseEntity<ErrorDTO> handlerBadRequestServiceException(BadRequestServiceException e) {
+        log.error(e.getMessage(), e);
+        ErrorDTO errorDTO = new ErrorDTO();
+        errorDTO.setMessage(e.getMessage());
+
+        return new ResponseEntity<>(errorDTO, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ExistingServiceException.class)
     public ResponseEntity<ErrorDTO> handlerExistingServiceException(ExistingServiceException e) {
         log.error(e.getMessage(), e);
@@ -48,6 +58,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDTO, HttpStatus.CONFLICT);
     }
 
+    // Порушення унікальності, що виникло вже під час коміту (INSERT з id з пулу послідовності
+    // виконується при flush), поза catch у сервісі
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorDTO> handlerDataIntegrityViolationException(DataIntegrityViolationException e) {
+        log.error(e.getMessage(), e);
+        ErrorDTO errorDTO = new ErrorDTO();
+        errorDTO.setMessage("Request conflicts with existing data");
+
+        return new ResponseEntity<>(errorDTO, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(UnavailableServiceException.class)
+    public ResponseEntity<ErrorDTO> handlerUnavailableServiceException(UnavailableServiceException e) {
+        log.error(e.getMessage(), e);
+        ErrorDTO errorDTO = new ErrorDTO();
+        errorDTO.setMessage(e.getMessage());
+
+        return new ResponseEntity<>(errorDTO, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(ServiceException.class)
     public ResponseEntity<ErrorDTO> handlerServiceException(ServiceException e) {
         log.error(e.getMessage(), e);